@@ -6,6 +6,7 @@ import api from '../services/api';
 const authApiRequests = {
     login: (body) => api.post('/accounts/login', body),
     register: (body) => api.post('/accounts/register', body),
+    logout: (refreshToken) => api.post('/accounts/logout', { refreshToken }),
     getCurrentUser: () => api.get('/accounts/me'),
     getUsers: () => api.get('/accounts'),
     getUser: (id) => api.get(`/accounts/${id}`),
@@ -1,8 +1,8 @@
 import api from "../services/api";
 
 const orchidApiRequests = {
-    getOrchids: () => api.get('/orchids'),
-    getAvailableOrchids: () => api.get('/orchids/available'),
+    getOrchids: (params) => api.get('/orchids', { params }),
+    getAvailableOrchids: (params) => api.get('/orchids/available', { params }),
     getOrchid:(id) => api.get(`/orchids/${id}`),
     createOrchid:(body) => api.post('/orchids',body),
     updateOrchid:(body,id) => api.put(`/orchids/${id}`,body),
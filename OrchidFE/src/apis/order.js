@@ -1,7 +1,7 @@
 import api from "../services/api";
 
 const orderApiRequests = {
-    getOrders: () => api.get('/orders'),
+    getOrders: (params) => api.get('/orders', { params }),
     getOrder:(id) => api.get(`/orders/${id}`),
     createOrder:(body) => api.post('/orders',body),
     updateOrder:(body,id) => api.put(`/orders/${id}`,body),
@@ -1,6 +1,7 @@
 import  { createContext, useContext, useState, useEffect } from 'react';
 import toast from 'react-hot-toast';
 import { useCurrentUser } from '../queries/useAuth';
+import authApiRequests from '../apis/auth';
 import { navigateTo } from '../utils/navigation';
 
 const AuthContext = createContext();
@@ -27,7 +28,13 @@ export const AuthProvider = ({ children }) => {
   }, [queryUser]);
   
   const handleLogout = () => {
+    const refreshToken = localStorage.getItem('refreshToken');
+    if (refreshToken) {
+      // Revoke the session server side; the local logout does not wait for it
+      authApiRequests.logout(refreshToken).catch(() => {});
+    }
     localStorage.removeItem('token');
+    localStorage.removeItem('refreshToken');
     setUser(null);
     toast.success('Logged out successfully');
     navigateTo('/login');
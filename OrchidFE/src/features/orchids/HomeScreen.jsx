@@ -5,7 +5,13 @@ import { ROUTES } from '../../constants';
 import { motion } from 'framer-motion';
 
 export default function HomeScreen() {
-  const { data: availableOrchids, isLoading: loading } = useAvailableOrchids();
+  const {
+    data: availableOrchids,
+    isLoading: loading,
+    hasNextPage,
+    fetchNextPage,
+    isFetchingNextPage
+  } = useAvailableOrchids();
   const orchids = availableOrchids?.data || [];
 
   if (loading) {
@@ -110,6 +116,19 @@ export default function HomeScreen() {
           ))}
         </Row>
       </motion.div>
+
+      {hasNextPage && (
+        <div className="text-center mt-5">
+          <Button
+            variant="primary"
+            className="rounded-pill px-4"
+            onClick={() => fetchNextPage()}
+            disabled={isFetchingNextPage}
+          >
+            {isFetchingNextPage ? 'Loading...' : 'Load more'}
+          </Button>
+        </div>
+      )}
     </Container>
   );
 }
\ No newline at end of file
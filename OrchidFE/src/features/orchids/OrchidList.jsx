@@ -7,7 +7,13 @@ import { useOrchids, useCreateOrchid, useDeleteOrchid, useUpdateOrchid } from '.
 import { useCategories } from '../../queries/useCategory';
 
 export default function OrchidList() {
-  const { data: dataOrchids, isLoading: loadingOrchids } = useOrchids();
+  const {
+    data: dataOrchids,
+    isLoading: loadingOrchids,
+    hasNextPage,
+    fetchNextPage,
+    isFetchingNextPage
+  } = useOrchids();
   const orchids = dataOrchids?.data || [];
   const { data: dataCategories, isLoading: loadingCategories } = useCategories();
   const categories = dataCategories?.data || [];
@@ -252,6 +258,18 @@ export default function OrchidList() {
             </Table>
           </motion.div>
         </Card>
+
+        {hasNextPage && (
+          <div className="text-center mt-4">
+            <Button
+              variant="outline-primary"
+              onClick={() => fetchNextPage()}
+              disabled={isFetchingNextPage}
+            >
+              {isFetchingNextPage ? 'Loading...' : 'Load more'}
+            </Button>
+          </div>
+        )}
         
         {orchids.length === 0 && (
           <motion.div 
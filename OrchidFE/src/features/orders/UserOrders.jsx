@@ -30,6 +30,8 @@ export default function UserOrders() {
     switch (status) {
       case 'PENDING':
         return 'warning';
+      case 'PAID':
+        return 'primary';
       case 'PROCESSING':
         return 'info';
       case 'COMPLETED':
@@ -274,19 +276,20 @@ export default function UserOrders() {
                         <div className="d-flex gap-2 justify-content-end align-items-center">
                          
                           
-                          {order.orderStatus !== 'COMPLETED' && order.orderStatus !== 'CANCELLED' && (
+                          {/* Only unpaid orders can be paid, cancelled or edited; paid ones are fulfilled by the shop */}
+                          {order.orderStatus === 'PENDING' && (
                             <Button
                               variant="outline-info"
                               size="sm"
                               onClick={() => handleCompleteOrder(order.id)}
                               disabled={updateOrderMutation.isPending}
-                              title="Mark as Completed"
+                              title="Pay for Order"
                             >
                               <i className="bi bi-check-circle"></i>
                             </Button>
                           )}
                           
-                          {order.orderStatus !== 'COMPLETED' && order.orderStatus !== 'CANCELLED' && (
+                          {order.orderStatus === 'PENDING' && (
                             <Button
                               variant="outline-warning"
                               size="sm"
@@ -297,7 +300,7 @@ export default function UserOrders() {
                               <i className="bi bi-x-circle"></i>
                             </Button>
                           )}
-                          {order.orderStatus !== 'COMPLETED' && order.orderStatus !== 'CANCELLED' && (
+                          {order.orderStatus === 'PENDING' && (
                           <Button
                             variant="outline-primary"
                             size="sm"
@@ -675,18 +678,18 @@ export default function UserOrders() {
         <Modal.Header closeButton>
           <Modal.Title>
             <i className={`bi ${confirmAction === 'complete' ? 'bi-check-circle text-success' : 'bi-x-circle text-warning'} me-2`}></i>
-            {confirmAction === 'complete' ? 'Complete Order' : 'Cancel Order'}
+            {confirmAction === 'complete' ? 'Pay for Order' : 'Cancel Order'}
           </Modal.Title>
         </Modal.Header>
         <Modal.Body>
           <div className="text-center py-3">
             <i className={`bi ${confirmAction === 'complete' ? 'bi-check-circle-fill text-success' : 'bi-exclamation-triangle-fill text-warning'}`} style={{fontSize: '3rem'}}></i>
             <h5 className="mt-3 mb-2">
-              {confirmAction === 'complete' ? `Mark Order as Completed?` : 'Cancel This Order?'}
+              {confirmAction === 'complete' ? 'Pay for This Order?' : 'Cancel This Order?'}
             </h5>
             <p className="text-muted mb-0">
               {confirmAction === 'complete' 
-                ? `Are you sure you want to mark Order #${orderToAction} as completed?`
+                ? `Order #${orderToAction} will be paid and handed to the shop for fulfillment.`
                 : `Are you sure you want to cancel Order #${orderToAction}?`
               }
               <br />
@@ -714,12 +717,12 @@ export default function UserOrders() {
             {(confirmAction === 'complete' ? completeOrderMutation : deleteOrderMutation).isPending ? (
               <>
                 <Spinner size="sm" className="me-2" />
-                {confirmAction === 'complete' ? 'Completing...' : 'Cancelling...'}
+                {confirmAction === 'complete' ? 'Paying...' : 'Cancelling...'}
               </>
             ) : (
               <>
                 <i className={`bi ${confirmAction === 'complete' ? 'bi-check-circle' : 'bi-x-circle'} me-2`}></i>
-                {confirmAction === 'complete' ? 'Complete Order' : 'Cancel Order'}
+                {confirmAction === 'complete' ? 'Pay' : 'Cancel Order'}
               </>
             )}
           </Button>
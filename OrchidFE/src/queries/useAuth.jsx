@@ -19,10 +19,13 @@ export const useLoginMutation = () => {
         },
         onSuccess: (data) => {
             // Store token in localStorage
-            const { token, user } = data;
+            const { token, refreshToken, user } = data;
             if (token) {
                 localStorage.setItem('token', token);
             }
+            if (refreshToken) {
+                localStorage.setItem('refreshToken', refreshToken);
+            }
             setUser(user);
             queryClient.invalidateQueries(['currentUser']);
             toast.success('Login successful!');
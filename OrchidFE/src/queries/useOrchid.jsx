@@ -1,20 +1,33 @@
-import { useQuery, useMutation, useQueryClient } from '@tanstack/react-query';
+import { useQuery, useInfiniteQuery, useMutation, useQueryClient } from '@tanstack/react-query';
 import orchidApiRequests from '../apis/orchid';
 import toast from 'react-hot-toast';
 import { navigateTo } from '../utils/navigation';
 import { ROUTES } from '../constants';
 
 /**
- * Hook for fetching all orchids
- * @returns {Object} Query result with orchids data
+ * Flattens the loaded cursor pages so callers keep reading `data.data` as a list
+ * @param {Object} data - Infinite query data
+ * @returns {Object} Last page response with `data` replaced by all loaded orchids
+ */
+const flattenOrchidPages = (data) => ({
+  ...data.pages[data.pages.length - 1],
+  data: data.pages.flatMap((page) => page.data?.items || []),
+});
+
+/**
+ * Hook for fetching all orchids, one cursor page at a time
+ * @returns {Object} Infinite query result with orchids data and fetchNextPage/hasNextPage
  */
 export const useOrchids = () => {
-  return useQuery({
+  return useInfiniteQuery({
     queryKey: ['orchids'],
-    queryFn: async () => {
-      const response = await orchidApiRequests.getOrchids();
+    queryFn: async ({ pageParam }) => {
+      const response = await orchidApiRequests.getOrchids({ cursor: pageParam });
       return response.data;
-    }, 
+    },
+    initialPageParam: null,
+    getNextPageParam: (lastPage) => lastPage.data?.nextCursor ?? undefined,
+    select: flattenOrchidPages,
     onError: (error) => {
       toast.error(error.response?.data?.reason || error.message || 'Failed to fetch orchids');
     }
@@ -22,16 +35,19 @@ export const useOrchids = () => {
 };
 
 /**
- * Hook for fetching available orchids
- * @returns {Object} Query result with available orchids data
+ * Hook for fetching available orchids, one cursor page at a time
+ * @returns {Object} Infinite query result with available orchids data and fetchNextPage/hasNextPage
  */
 export const useAvailableOrchids = () => {
-  return useQuery({
+  return useInfiniteQuery({
     queryKey: ['orchids', 'available'],
-    queryFn: async () => {
-      const response = await orchidApiRequests.getAvailableOrchids();
+    queryFn: async ({ pageParam }) => {
+      const response = await orchidApiRequests.getAvailableOrchids({ cursor: pageParam });
       return response.data;
     },
+    initialPageParam: null,
+    getNextPageParam: (lastPage) => lastPage.data?.nextCursor ?? undefined,
+    select: flattenOrchidPages,
     onError: (error) => {
       toast.error(error.response?.data?.reason || error.message || 'Failed to fetch available orchids');
     }
@@ -5,14 +5,15 @@ import { navigateTo } from '../utils/navigation';
 import { ROUTES } from '../constants';
 
 /**
- * Hook for fetching all orders
- * @returns {Object} Query result with orders data
+ * Hook for fetching a page of orders
+ * @param {Object} params - Optional status, from, to, page and size filters
+ * @returns {Object} Query result with { items, page, size, totalItems, totalPages } data
  */
-export const useOrders = () => {
+export const useOrders = (params = {}) => {
   return useQuery({
-    queryKey: ['orders'],
+    queryKey: ['orders', params],
     queryFn: async () => {
-      const response = await orderApiRequests.getOrders();
+      const response = await orderApiRequests.getOrders(params);
       return response.data;
     },
     onError: (error) => {
@@ -122,10 +123,10 @@ export const useCompleteOrder = () => {
       queryClient.invalidateQueries(['orders']);
       queryClient.invalidateQueries(['orders', orderId]);
       queryClient.invalidateQueries(['orders', 'user']);
-      toast.success('Order marked as completed!');
+      toast.success('Order paid, it will be completed once fulfilled');
     },
     onError: (error) => {
-      toast.error(error.response?.data?.reason || error.message || 'Failed to complete order');
+      toast.error(error.response?.data?.reason || error.message || 'Failed to pay for order');
     }
   });
 };
@@ -44,6 +44,38 @@ api.interceptors.request.use(
   }
 );
 
+// A 401 from these means bad credentials, not an expired access token
+const SESSION_URLS = ['/accounts/login', '/accounts/register', '/accounts/refresh', '/accounts/logout'];
+
+// One refresh at a time; concurrent 401s wait for the same new token
+let refreshPromise = null;
+
+const clearSession = () => {
+  localStorage.removeItem('token');
+  localStorage.removeItem('refreshToken');
+  localStorage.removeItem('user');
+  window.dispatchEvent(new Event('storage'));
+};
+
+const refreshAccessToken = () => {
+  if (!refreshPromise) {
+    const refreshToken = localStorage.getItem('refreshToken');
+    // Plain axios: the expired access token must not be sent along
+    refreshPromise = axios
+      .post(`${import.meta.env.VITE_API_URL}/accounts/refresh`, { refreshToken }, { withCredentials: true })
+      .then((response) => {
+        const { token, refreshToken: nextRefreshToken } = response.data.data;
+        localStorage.setItem('token', token);
+        localStorage.setItem('refreshToken', nextRefreshToken);
+        return token;
+      })
+      .finally(() => {
+        refreshPromise = null;
+      });
+  }
+  return refreshPromise;
+};
+
 // Response handling and error interceptor
 api.interceptors.response.use(
   (response) => {
@@ -71,10 +103,20 @@ api.interceptors.response.use(
       // Handle specific status codes
       switch (error.response.status) {
         case 401: // Unauthorized
+          // Access tokens are short lived: renew once and replay the request
+          if (!originalRequest._refreshed && localStorage.getItem('refreshToken')
+              && !SESSION_URLS.includes(originalRequest.url)) {
+            originalRequest._refreshed = true;
+            try {
+              const token = await refreshAccessToken();
+              originalRequest.headers.Authorization = `Bearer ${token}`;
+              return await api(originalRequest);
+            } catch (refreshError) {
+              console.error('Token refresh failed:', refreshError);
+            }
+          }
           // Clear authentication data and redirect to login
-          localStorage.removeItem('token');
-          localStorage.removeItem('user');
-          window.dispatchEvent(new Event('storage'));
+          clearSession();
           // Dispatch storage event to notify other components
           navigateTo('/login');
           // Redirect to login page if not already there
@@ -0,0 +1,45 @@
+package com.orchid.orchidbe.benchmarks;
+
+import com.orchid.orchidbe.configs.JwtPrincipal;
+import com.orchid.orchidbe.pojos.Account;
+import com.orchid.orchidbe.pojos.Role;
+import java.util.Collection;
+import java.util.List;
+import java.util.concurrent.TimeUnit;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.springframework.security.core.GrantedAuthority;
+
+/**
+ * Authorities are rebuilt every time they are asked for, once per
+ * authenticated request on both the entity and the token principal path.
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.NANOSECONDS)
+public class AccountAuthoritiesBenchmark {
+
+    private Account account;
+    private JwtPrincipal principal;
+
+    @Setup
+    public void setUp() {
+        account = new Account(42, "Bench", "bench@example.com", "x", new Role(2, "User"));
+        principal = new JwtPrincipal(42, "bench@example.com", List.of("User"));
+    }
+
+    @Benchmark
+    public Collection<? extends GrantedAuthority> accountAuthorities() {
+        return account.getAuthorities();
+    }
+
+    @Benchmark
+    public Collection<GrantedAuthority> principalAuthorities() {
+        return principal.authorities();
+    }
+}
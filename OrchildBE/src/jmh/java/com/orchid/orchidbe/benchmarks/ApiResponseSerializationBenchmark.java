@@ -0,0 +1,74 @@
+package com.orchid.orchidbe.benchmarks;
+
+import com.fasterxml.jackson.core.JsonProcessingException;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.orchid.orchidbe.apis.MyApiResponse;
+import com.orchid.orchidbe.dto.OrchidDTO;
+import com.orchid.orchidbe.dto.OrderDTO;
+import com.orchid.orchidbe.pojos.Order;
+import java.time.Instant;
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.TimeUnit;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.springframework.http.converter.json.Jackson2ObjectMapperBuilder;
+
+/**
+ * Writing a response body for a large catalog page or order page, with an
+ * ObjectMapper configured the way Spring Boot configures the one MVC uses.
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+public class ApiResponseSerializationBenchmark {
+
+    @Param({"100", "1000", "10000"})
+    private int size;
+
+    private ObjectMapper objectMapper;
+    private MyApiResponse<OrchidDTO.OrchidPage> orchids;
+    private MyApiResponse<OrderDTO.OrderPageRes> orders;
+
+    @Setup
+    public void setUp() {
+        objectMapper = Jackson2ObjectMapperBuilder.json().build();
+
+        var category = new OrchidDTO.CategoryRes(1, "Orchids");
+        List<OrchidDTO.OrchidRes> items = new ArrayList<>(size);
+        for (int i = 0; i < size; i++) {
+            items.add(new OrchidDTO.OrchidRes(i, i % 2 == 0, "Bench orchid " + i, "Orchid " + i,
+                    "https://example.com/" + i + ".jpg", 5.0 + i, true, category));
+        }
+        orchids = new MyApiResponse.Success<>(200, "OK", new OrchidDTO.OrchidPage(items, "cursor", true), Instant.now());
+
+        // Three lines per order, the order page scaled to the same number of rows
+        List<OrderDTO.OrderRes> pageItems = new ArrayList<>(size / 3 + 1);
+        for (int i = 0; i < size / 3 + 1; i++) {
+            var details = List.of(
+                    new OrderDTO.OrderDetailRes(1, "Phalaenopsis", "https://example.com/1.jpg", "Orchids", 2, 10.0),
+                    new OrderDTO.OrderDetailRes(2, "Cattleya", "https://example.com/2.jpg", "Exotic Flowers", 1, 15.0),
+                    new OrderDTO.OrderDetailRes(3, "Dendrobium", "https://example.com/3.jpg", "Indoor Plants", 3, 20.0));
+            pageItems.add(new OrderDTO.OrderRes(i, 95.0, LocalDateTime.now(), Order.OrderStatus.PENDING, 42, details));
+        }
+        orders = new MyApiResponse.Success<>(200, "OK",
+                new OrderDTO.OrderPageRes(pageItems, 0, pageItems.size(), pageItems.size(), 1), Instant.now());
+    }
+
+    @Benchmark
+    public byte[] orchidPage() throws JsonProcessingException {
+        return objectMapper.writeValueAsBytes(orchids);
+    }
+
+    @Benchmark
+    public byte[] orderPage() throws JsonProcessingException {
+        return objectMapper.writeValueAsBytes(orders);
+    }
+}
@@ -0,0 +1,54 @@
+package com.orchid.orchidbe.benchmarks;
+
+import com.orchid.orchidbe.configs.JwtUtil;
+import com.orchid.orchidbe.pojos.Account;
+import com.orchid.orchidbe.pojos.Role;
+import java.util.concurrent.TimeUnit;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+
+/**
+ * Issuing a token on login and the boolean check the filter used to make.
+ * Verification itself is compared in {@link JwtVerifyBenchmark}.
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+public class JwtTokenBenchmark {
+
+    private static final String SECRET = "bXlTZWNyZXRfTWluaCBWbyBRdWFuZ18yMDI1";
+    private static final long EXPIRATION = 900_000;
+
+    private JwtUtil uncached;
+    private JwtUtil cached;
+    private Account account;
+    private String token;
+
+    @Setup
+    public void setUp() {
+        uncached = new JwtUtil(SECRET, EXPIRATION, 0);
+        cached = new JwtUtil(SECRET, EXPIRATION, 10_000);
+        account = new Account(42, "Bench", "bench@example.com", "x", new Role(2, "User"));
+        token = uncached.generateToken(account);
+    }
+
+    @Benchmark
+    public String generateToken() {
+        return uncached.generateToken(account);
+    }
+
+    @Benchmark
+    public boolean validateToken() {
+        return uncached.validateToken(token);
+    }
+
+    @Benchmark
+    public boolean validateTokenCached() {
+        return cached.validateToken(token);
+    }
+}
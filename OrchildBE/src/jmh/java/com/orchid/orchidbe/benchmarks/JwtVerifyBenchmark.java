@@ -0,0 +1,64 @@
+package com.orchid.orchidbe.benchmarks;
+
+import com.orchid.orchidbe.configs.JwtUtil;
+import com.orchid.orchidbe.pojos.Account;
+import com.orchid.orchidbe.pojos.Role;
+import io.jsonwebtoken.Claims;
+import io.jsonwebtoken.Jwts;
+import io.jsonwebtoken.security.Keys;
+import java.nio.charset.StandardCharsets;
+import java.util.concurrent.TimeUnit;
+import javax.crypto.SecretKey;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Threads;
+import org.openjdk.jmh.infra.Blackhole;
+
+/**
+ * Authentication cost of one request in {@code JwtAuthenticationFilter}.
+ * {@code twoFreshParses} is what the filter did before: validateToken and
+ * getUsernameFromToken, each building a parser and verifying the signature.
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.NANOSECONDS)
+@Threads(4)
+public class JwtVerifyBenchmark {
+
+    private static final String SECRET = "bXlTZWNyZXRfTWluaCBWbyBRdWFuZ18yMDI1";
+    private static final long EXPIRATION = 4_320_000;
+
+    private SecretKey key;
+    private JwtUtil uncached;
+    private JwtUtil cached;
+    private String token;
+
+    @Setup
+    public void setUp() {
+        key = Keys.hmacShaKeyFor(SECRET.getBytes(StandardCharsets.UTF_8));
+        uncached = new JwtUtil(SECRET, EXPIRATION, 0);
+        cached = new JwtUtil(SECRET, EXPIRATION, 10_000);
+        token = cached.generateToken(new Account(42, "Bench", "bench@example.com", "x", new Role(2, "User")));
+    }
+
+    @Benchmark
+    public void twoFreshParses(Blackhole bh) {
+        bh.consume(Jwts.parserBuilder().setSigningKey(key).build().parseClaimsJws(token));
+        bh.consume(Jwts.parserBuilder().setSigningKey(key).build().parseClaimsJws(token).getBody().getSubject());
+    }
+
+    @Benchmark
+    public Claims verifyWithSharedParser() {
+        return uncached.verify(token);
+    }
+
+    @Benchmark
+    public Claims verifyCached() {
+        return cached.verify(token);
+    }
+}
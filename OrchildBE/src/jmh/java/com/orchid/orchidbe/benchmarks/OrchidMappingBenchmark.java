@@ -0,0 +1,36 @@
+package com.orchid.orchidbe.benchmarks;
+
+import com.orchid.orchidbe.dto.OrchidDTO;
+import com.orchid.orchidbe.dto.OrchidMapper;
+import com.orchid.orchidbe.pojos.Category;
+import com.orchid.orchidbe.pojos.Orchid;
+import java.util.concurrent.TimeUnit;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+
+/**
+ * Entity to response mapping done after an orchid is written.
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.NANOSECONDS)
+public class OrchidMappingBenchmark {
+
+    private Orchid orchid;
+
+    @Setup
+    public void setUp() {
+        orchid = new Orchid(1, true, "Natural orchid", "Phalaenopsis", "https://example.com/1.jpg", 10.0, true,
+                new Category(1, "Orchids"));
+    }
+
+    @Benchmark
+    public OrchidDTO.OrchidRes mapToOrchidRes() {
+        return OrchidMapper.toOrchidRes(orchid);
+    }
+}
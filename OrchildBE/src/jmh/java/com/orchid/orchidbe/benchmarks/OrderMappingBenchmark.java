@@ -0,0 +1,55 @@
+package com.orchid.orchidbe.benchmarks;
+
+import com.orchid.orchidbe.dto.OrderDTO;
+import com.orchid.orchidbe.dto.OrderMapper;
+import com.orchid.orchidbe.pojos.Account;
+import com.orchid.orchidbe.pojos.Category;
+import com.orchid.orchidbe.pojos.Orchid;
+import com.orchid.orchidbe.pojos.Order;
+import com.orchid.orchidbe.pojos.OrderDetail;
+import com.orchid.orchidbe.pojos.Role;
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.TimeUnit;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+
+/**
+ * Entity to response mapping done after an order is written, by cart size.
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.NANOSECONDS)
+public class OrderMappingBenchmark {
+
+    @Param({"1", "10", "50"})
+    private int lines;
+
+    private Order order;
+    private List<OrderDetail> details;
+
+    @Setup
+    public void setUp() {
+        var category = new Category(1, "Orchids");
+        var account = new Account(42, "Bench", "bench@example.com", "x", new Role(2, "User"));
+        order = new Order(7, 0.0, LocalDateTime.now(), Order.OrderStatus.PENDING, account, null);
+        details = new ArrayList<>();
+        for (int i = 0; i < lines; i++) {
+            var line = new Orchid(i, true, "Bench orchid", "Orchid " + i, "https://example.com/" + i + ".jpg",
+                    5.0 + i, true, i % 5 == 0 ? null : category);
+            details.add(new OrderDetail(i, line.getPrice(), 2, line, order, true));
+        }
+    }
+
+    @Benchmark
+    public OrderDTO.OrderRes mapToOrderRes() {
+        return OrderMapper.toOrderRes(order, details);
+    }
+}
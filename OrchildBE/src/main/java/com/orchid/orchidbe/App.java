@@ -3,12 +3,14 @@ package com.orchid.orchidbe;
 import com.orchid.orchidbe.pojos.Account;
 import com.orchid.orchidbe.pojos.Category;
 import com.orchid.orchidbe.pojos.Orchid;
+import com.orchid.orchidbe.pojos.OrchidStock;
 import com.orchid.orchidbe.pojos.Order;
 import com.orchid.orchidbe.pojos.OrderDetail;
 import com.orchid.orchidbe.pojos.Role;
 import com.orchid.orchidbe.repositories.AccountRepository;
 import com.orchid.orchidbe.repositories.CategoryRepository;
 import com.orchid.orchidbe.repositories.OrchidRepository;
+import com.orchid.orchidbe.repositories.OrchidStockRepository;
 import com.orchid.orchidbe.repositories.OrderDetailRepository;
 import com.orchid.orchidbe.repositories.OrderRepository;
 import com.orchid.orchidbe.repositories.RoleRepository;
@@ -37,8 +39,10 @@ public class App implements CommandLineRunner {
     private final AccountRepository accountRepository;
     private final CategoryRepository categoryRepository;
     private final OrchidRepository orchidRepository;
+    private final OrchidStockRepository orchidStockRepository;
     private final OrderRepository orderRepository;
     private final OrderDetailRepository orderDetailRepository;
+    private final BulkDataGenerator bulkDataGenerator;
 
     public static void main(String[] args) throws Exception {
         var context = SpringApplication.run(App.class, args);
@@ -59,11 +63,19 @@ public class App implements CommandLineRunner {
 
     @Override
     public void run(String... args) throws Exception {
-        final PasswordEncoder passwordEncoder = new BCryptPasswordEncoder();
         if (roleRepository.count() > 0) {
             System.out.println("Seed data already exists. Skipping seeding.");
-            return;
+        } else {
+            seed();
+        }
+        // Enabled separately, so it can be added to a database seeded earlier
+        if (bulkDataGenerator.isEnabled()) {
+            bulkDataGenerator.generate();
         }
+    }
+
+    private void seed() {
+        final PasswordEncoder passwordEncoder = new BCryptPasswordEncoder();
         // Roles
         Role role1 = new Role(0, "Admin");
         Role role2 = new Role(0, "User");
@@ -94,6 +106,8 @@ public class App implements CommandLineRunner {
         o1 = savedOrchids.get(0);
         o2 = savedOrchids.get(1);
         o3 = savedOrchids.get(2);
+        // Not limited, the seed is for trying the API out
+        orchidStockRepository.saveAll(savedOrchids.stream().map(o -> new OrchidStock(o.getId(), null)).toList());
 
         // Orders - don't set ID explicitly if using auto-generation
         Order ord1 = new Order();
@@ -120,9 +134,10 @@ public class App implements CommandLineRunner {
         ord3 = savedOrders.get(2);
 
         // OrderDetails
-        OrderDetail d1 = new OrderDetail(0, 10.0, 2, o1, ord1);
-        OrderDetail d2 = new OrderDetail(0, 15.0, 1, o2, ord2);
-        OrderDetail d3 = new OrderDetail(0, 20.0, 3, o3, ord3);
+        // Written directly, so they hold no stock
+        OrderDetail d1 = new OrderDetail(0, 10.0, 2, o1, ord1, false);
+        OrderDetail d2 = new OrderDetail(0, 15.0, 1, o2, ord2, false);
+        OrderDetail d3 = new OrderDetail(0, 20.0, 3, o3, ord3, false);
         orderDetailRepository.saveAll(Arrays.asList(d1, d2, d3));
     }
 
@@ -0,0 +1,291 @@
+package com.orchid.orchidbe;
+
+import java.time.LocalDateTime;
+import java.time.temporal.ChronoUnit;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Collections;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Random;
+import jakarta.persistence.EntityManagerFactory;
+import lombok.extern.slf4j.Slf4j;
+import org.hibernate.SessionFactory;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.security.crypto.bcrypt.BCryptPasswordEncoder;
+import org.springframework.stereotype.Component;
+
+/**
+ * Production sized synthetic data on top of the seed data, for reproducing
+ * scaling problems locally. Rows go in through multi-row INSERT statements on
+ * plain JDBC; entities and saveAll would spend most of the time in Hibernate.
+ * Runs from {@link App#run} when {@code seed.bulk.enabled} is set, and only
+ * once per database: the first generated account marks it as done.
+ */
+@Slf4j
+@Component
+public class BulkDataGenerator {
+
+    // SQL Server accepts at most 2100 parameters and 1000 rows of VALUES per statement
+    private static final int MAX_PARAMETERS = 2000;
+    private static final int MAX_ROWS = 1000;
+
+    private static final int ORDERS_PER_CHUNK = 500;
+
+    private final JdbcTemplate jdbcTemplate;
+    private final EntityManagerFactory entityManagerFactory;
+    private final boolean enabled;
+    private final int categories;
+    private final int orchids;
+    private final int stock;
+    private final int accounts;
+    private final int orders;
+    private final int maxLinesPerOrder;
+    private final int days;
+    private final String password;
+    private final Random random;
+
+    public BulkDataGenerator(JdbcTemplate jdbcTemplate,
+                             EntityManagerFactory entityManagerFactory,
+                             @Value("${seed.bulk.enabled:false}") boolean enabled,
+                             @Value("${seed.bulk.categories:300}") int categories,
+                             @Value("${seed.bulk.orchids:1000000}") int orchids,
+                             @Value("${seed.bulk.stock:1000}") int stock,
+                             @Value("${seed.bulk.accounts:200000}") int accounts,
+                             @Value("${seed.bulk.orders:5000000}") int orders,
+                             @Value("${seed.bulk.max-lines-per-order:7}") int maxLinesPerOrder,
+                             @Value("${seed.bulk.days:730}") int days,
+                             @Value("${seed.bulk.password:1}") String password,
+                             @Value("${seed.bulk.seed:42}") long seed) {
+        this.jdbcTemplate = jdbcTemplate;
+        this.entityManagerFactory = entityManagerFactory;
+        this.enabled = enabled;
+        this.categories = categories;
+        this.orchids = orchids;
+        this.stock = stock;
+        this.accounts = accounts;
+        this.orders = orders;
+        this.maxLinesPerOrder = Math.max(1, maxLinesPerOrder);
+        this.days = Math.max(1, days);
+        this.password = password;
+        this.random = new Random(seed);
+    }
+
+    public boolean isEnabled() {
+        return enabled;
+    }
+
+    public void generate() {
+        Integer done = jdbcTemplate.queryForObject(
+            "select count(*) from accounts where email = ?", Integer.class, email(0));
+        if (done != null && done > 0) {
+            log.info("Bulk data already generated. Skipping.");
+            return;
+        }
+        long start = System.nanoTime();
+
+        int[] categoryIds = insertCategories();
+        Catalog catalog = insertOrchids(categoryIds);
+        int[] accountIds = insertAccounts();
+        long lines = insertOrders(catalog, accountIds);
+        // Written behind Hibernate's back, so cached entities and query results may be stale
+        entityManagerFactory.unwrap(SessionFactory.class).getCache().evictAllRegions();
+
+        log.info("Generated {} categories, {} orchids, {} accounts, {} orders and {} order lines in {} s",
+            categories, orchids, accounts, orders, lines, (System.nanoTime() - start) / 1_000_000_000);
+    }
+
+    private int[] insertCategories() {
+        var insert = new MultiRowInsert("categories", "category_name");
+        for (int i = 0; i < categories; i++) {
+            insert.add("Bulk category " + i);
+        }
+        insert.flush();
+        return jdbcTemplate.queryForList("select category_id from categories", Integer.class).stream()
+            .mapToInt(Integer::intValue)
+            .toArray();
+    }
+
+    private Catalog insertOrchids(int[] categoryIds) {
+        var insert = new MultiRowInsert("orchids", "is_natural", "orchid_description", "orchid_name",
+            "orchid_url", "price", "is_available", "category_id");
+        for (int i = 0; i < orchids; i++) {
+            insert.add(random.nextBoolean(), "Bulk orchid number " + i, "Bulk orchid " + i,
+                "https://example.com/orchids/" + i + ".jpg", 5 + random.nextInt(49_500) / 100.0,
+                random.nextInt(10) > 0, categoryIds[random.nextInt(categoryIds.length)]);
+            progress("orchids", i + 1, orchids);
+        }
+        insert.flush();
+        // A stock row for every orchid that has none yet, the seeded ones already do
+        jdbcTemplate.update("insert into orchid_stock (orchid_id, quantity) select o.orchid_id, ? from orchids o"
+            + " where not exists (select 1 from orchid_stock s where s.orchid_id = o.orchid_id)", stock);
+
+        var ids = new ArrayList<Integer>();
+        var prices = new ArrayList<Double>();
+        jdbcTemplate.query("select orchid_id, price from orchids", rs -> {
+            ids.add(rs.getInt(1));
+            prices.add(rs.getDouble(2));
+        });
+        return new Catalog(ids.stream().mapToInt(Integer::intValue).toArray(),
+            prices.stream().mapToDouble(Double::doubleValue).toArray());
+    }
+
+    // One hash for every account, BCrypt per row would take longer than the rest together
+    private int[] insertAccounts() {
+        Integer userRole = jdbcTemplate.queryForObject(
+            "select role_id from roles where role_name = ?", Integer.class, "User");
+        String hash = new BCryptPasswordEncoder().encode(password);
+
+        var insert = new MultiRowInsert("accounts", "account_name", "email", "password", "role_id");
+        for (int i = 0; i < accounts; i++) {
+            insert.add("Bulk account " + i, email(i), hash, userRole);
+            progress("accounts", i + 1, accounts);
+        }
+        insert.flush();
+        return jdbcTemplate.queryForList("select account_id from accounts where email like 'bulk-%'", Integer.class)
+            .stream()
+            .mapToInt(Integer::intValue)
+            .toArray();
+    }
+
+    /**
+     * Orders go in a chunk at a time, then the chunk is read back to learn the
+     * generated ids. Every order has its own date, which ties each id to the
+     * lines generated for it without relying on the order in which identities
+     * are handed out.
+     */
+    private long insertOrders(Catalog catalog, int[] accountIds) {
+        long stepSeconds = Math.max(1, days * 86_400L / Math.max(orders, 1));
+        var first = LocalDateTime.now().truncatedTo(ChronoUnit.SECONDS).minusSeconds(stepSeconds * (orders + 1L));
+        Integer maxId = jdbcTemplate.queryForObject("select max(id) from orders", Integer.class);
+        int lastId = maxId == null ? 0 : maxId;
+        long lines = 0;
+
+        for (int from = 0; from < orders; from += ORDERS_PER_CHUNK) {
+            int size = Math.min(ORDERS_PER_CHUNK, orders - from);
+            List<List<Line>> chunkLines = new ArrayList<>(size);
+            Map<LocalDateTime, Integer> byDate = new HashMap<>();
+
+            var orderInsert = new MultiRowInsert("orders", "total_amount", "order_date", "order_status", "account_id");
+            for (int i = 0; i < size; i++) {
+                var date = first.plusSeconds(stepSeconds * (from + i));
+                List<Line> orderLines = lines(catalog);
+                chunkLines.add(orderLines);
+                byDate.put(date, i);
+                orderInsert.add(orderLines.stream().mapToDouble(line -> line.price() * line.quantity()).sum(),
+                    date, status(), accountIds[random.nextInt(accountIds.length)]);
+            }
+            orderInsert.flush();
+
+            var lineInsert = new MultiRowInsert("order_details", "price", "quantity", "orchid_id", "order_id");
+            var inserted = jdbcTemplate.queryForList(
+                "select id, order_date from orders where id > ? order by id offset 0 rows fetch next ? rows only",
+                lastId, size);
+            for (var row : inserted) {
+                int orderId = ((Number) row.get("id")).intValue();
+                var date = toLocalDateTime(row.get("order_date"));
+                for (Line line : chunkLines.get(byDate.get(date))) {
+                    lineInsert.add(line.price(), line.quantity(), line.orchidId(), orderId);
+                    lines++;
+                }
+                lastId = Math.max(lastId, orderId);
+            }
+            lineInsert.flush();
+            progress("orders", from + size, orders);
+        }
+        return lines;
+    }
+
+    private List<Line> lines(Catalog catalog) {
+        int count = 1 + random.nextInt(maxLinesPerOrder);
+        List<Line> lines = new ArrayList<>(count);
+        for (int i = 0; i < count; i++) {
+            int orchid = random.nextInt(catalog.ids().length);
+            lines.add(new Line(catalog.ids()[orchid], catalog.prices()[orchid], 1 + random.nextInt(3)));
+        }
+        return lines;
+    }
+
+    // Mostly finished orders, as in a shop that has been running for a while; ordinals of OrderStatus
+    private int status() {
+        int roll = random.nextInt(100);
+        if (roll < 75) {
+            return 2; // COMPLETED
+        }
+        if (roll < 85) {
+            return 1; // PROCESSING
+        }
+        if (roll < 95) {
+            return 0; // PENDING
+        }
+        return 3; // CANCELLED
+    }
+
+    private static LocalDateTime toLocalDateTime(Object value) {
+        if (value instanceof java.sql.Timestamp timestamp) {
+            return timestamp.toLocalDateTime();
+        }
+        return (LocalDateTime) value;
+    }
+
+    private static String email(int account) {
+        return "bulk-" + account + "@example.com";
+    }
+
+    private static void progress(String what, int done, int total) {
+        if (done % 100_000 == 0 || done == total) {
+            log.info("Bulk {}: {}/{}", what, done, total);
+        }
+    }
+
+    private record Catalog(int[] ids, double[] prices) {
+    }
+
+    private record Line(int orchidId, double price, int quantity) {
+    }
+
+    /** Buffers rows and writes them as few INSERT ... VALUES (...), (...) statements as the driver allows. */
+    private final class MultiRowInsert {
+
+        private final String prefix;
+        private final String row;
+        private final int columns;
+        private final int rowsPerStatement;
+        private final String fullStatement;
+        private final List<Object> parameters = new ArrayList<>();
+        private int rows;
+
+        MultiRowInsert(String table, String... columns) {
+            this.prefix = "insert into " + table + " (" + String.join(", ", columns) + ") values ";
+            this.row = "(" + String.join(", ", Collections.nCopies(columns.length, "?")) + ")";
+            this.columns = columns.length;
+            this.rowsPerStatement = Math.min(MAX_ROWS, MAX_PARAMETERS / columns.length);
+            this.fullStatement = statement(rowsPerStatement);
+        }
+
+        void add(Object... values) {
+            if (values.length != columns) {
+                throw new IllegalArgumentException("Expected " + columns + " values, got " + values.length);
+            }
+            parameters.addAll(Arrays.asList(values));
+            if (++rows == rowsPerStatement) {
+                flush();
+            }
+        }
+
+        void flush() {
+            if (rows == 0) {
+                return;
+            }
+            jdbcTemplate.update(rows == rowsPerStatement ? fullStatement : statement(rows), parameters.toArray());
+            parameters.clear();
+            rows = 0;
+        }
+
+        private String statement(int rowCount) {
+            return prefix + String.join(", ", Collections.nCopies(rowCount, row));
+        }
+    }
+}
@@ -0,0 +1,53 @@
+package com.orchid.orchidbe.apis;
+
+import java.io.ByteArrayOutputStream;
+import java.io.IOException;
+import java.io.UncheckedIOException;
+import java.util.zip.GZIPOutputStream;
+import org.springframework.http.HttpHeaders;
+import org.springframework.http.MediaType;
+import org.springframework.http.ResponseEntity;
+
+/**
+ * A response body that has already been serialized, plus its gzip form when
+ * compressing is worth it. Serving one costs a header lookup and a byte copy.
+ */
+public record EncodedResponse(byte[] json, byte[] gzip) {
+
+    // Below this size gzip framing eats most of the saving
+    private static final int GZIP_MIN_BYTES = 1024;
+
+    public static EncodedResponse of(byte[] json) {
+        return new EncodedResponse(json, json.length >= GZIP_MIN_BYTES ? gzip(json) : null);
+    }
+
+    public int weight() {
+        return json.length + (gzip == null ? 0 : gzip.length);
+    }
+
+    public static boolean acceptsGzip(String acceptEncoding) {
+        return acceptEncoding != null && acceptEncoding.contains("gzip");
+    }
+
+    public ResponseEntity<byte[]> toResponseEntity(String acceptEncoding, String etag) {
+        var builder = ResponseEntity.ok()
+            .contentType(MediaType.APPLICATION_JSON)
+            .header(HttpHeaders.VARY, HttpHeaders.ACCEPT_ENCODING)
+            .eTag(etag)
+            .cacheControl(MyApiResponse.REVALIDATE);
+        if (gzip != null && acceptsGzip(acceptEncoding)) {
+            return builder.header(HttpHeaders.CONTENT_ENCODING, "gzip").body(gzip);
+        }
+        return builder.body(json);
+    }
+
+    private static byte[] gzip(byte[] json) {
+        var out = new ByteArrayOutputStream(json.length / 4);
+        try (var gzip = new GZIPOutputStream(out)) {
+            gzip.write(json);
+        } catch (IOException e) {
+            throw new UncheckedIOException(e);
+        }
+        return out.toByteArray();
+    }
+}
@@ -5,6 +5,7 @@ import com.orchid.orchidbe.apis.MyApiResponse.Success;
 import com.orchid.orchidbe.apis.MyApiResponse.ValidationError;
 import java.time.Instant;
 import java.util.Map;
+import org.springframework.http.CacheControl;
 import org.springframework.http.HttpStatus;
 import org.springframework.http.ResponseEntity;
 
@@ -50,6 +51,9 @@ public sealed interface MyApiResponse<T>
         @Override public Instant getTimestamp() { return timestamp; }
     }
 
+    // Browsers may keep the body but must revalidate it with If-None-Match
+    CacheControl REVALIDATE = CacheControl.noCache().cachePrivate();
+
     // ✅ Helper methods
     static <T> ResponseEntity<MyApiResponse<T>> success(T data) {
         return ResponseEntity.ok(new Success<>(
@@ -57,6 +61,13 @@ public sealed interface MyApiResponse<T>
         ));
     }
 
+    static <T> ResponseEntity<MyApiResponse<T>> success(T data, String etag) {
+        return ResponseEntity.ok()
+            .eTag(etag)
+            .cacheControl(REVALIDATE)
+            .body(new Success<>(200, "Success", data, Instant.now()));
+    }
+
     static <T> ResponseEntity<MyApiResponse<T>> created(T data) {
         return ResponseEntity.status(HttpStatus.CREATED).body(new Success<>(
             201, "Created successfully", data, Instant.now()
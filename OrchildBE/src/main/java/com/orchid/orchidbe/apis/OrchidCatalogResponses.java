@@ -0,0 +1,37 @@
+package com.orchid.orchidbe.apis;
+
+import com.fasterxml.jackson.core.JsonProcessingException;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.orchid.orchidbe.configs.CacheConfig;
+import com.orchid.orchidbe.dto.OrchidDTO;
+import com.orchid.orchidbe.services.OrchidService;
+import java.time.Instant;
+import lombok.RequiredArgsConstructor;
+import org.springframework.cache.annotation.Cacheable;
+import org.springframework.stereotype.Component;
+
+/**
+ * Fully encoded {@code /orchids/available} responses, one per page and category
+ * slice. The catalog version is part of the key, so a body built from data
+ * read before a change is never served under the new version's ETag; catalog
+ * writes also clear the region to release the memory. The timestamp in a
+ * cached body is the time it was built.
+ */
+@Component
+@RequiredArgsConstructor
+public class OrchidCatalogResponses {
+
+    private final OrchidService orchidService;
+    private final ObjectMapper objectMapper;
+
+    @Cacheable(CacheConfig.AVAILABLE_ORCHID_RESPONSES)
+    public EncodedResponse availablePage(long catalogVersion, Integer categoryId, OrchidDTO.OrchidSort sort, String cursor, int size) {
+        var page = orchidService.getAllAvailable(categoryId, sort, cursor, size);
+        try {
+            return EncodedResponse.of(objectMapper.writeValueAsBytes(
+                new MyApiResponse.Success<>(200, "Success", page, Instant.now())));
+        } catch (JsonProcessingException e) {
+            throw new IllegalStateException("Cannot encode orchid catalog page", e);
+        }
+    }
+}
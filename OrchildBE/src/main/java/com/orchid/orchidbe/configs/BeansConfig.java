@@ -1,7 +1,15 @@
 package com.orchid.orchidbe.configs;
 
 import com.orchid.orchidbe.repositories.AccountRepository;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.Tags;
+import io.micrometer.core.instrument.binder.jvm.ExecutorServiceMetrics;
+import java.time.Duration;
+import java.util.concurrent.ArrayBlockingQueue;
+import java.util.concurrent.ThreadPoolExecutor;
+import java.util.concurrent.TimeUnit;
 import lombok.RequiredArgsConstructor;
+import org.springframework.beans.factory.annotation.Value;
 import org.springframework.context.annotation.Bean;
 import org.springframework.context.annotation.Configuration;
 import org.springframework.security.authentication.AuthenticationManager;
@@ -18,9 +26,31 @@ import org.springframework.security.crypto.password.PasswordEncoder;
 public class BeansConfig {
     private final AccountRepository accountRepository;
 
+    @Value("${auth.hashing.threads:2}")
+    private int hashingThreads;
+
+    @Value("${auth.hashing.queue-size:64}")
+    private int hashingQueueSize;
+
+    @Value("${auth.hashing.timeout:5s}")
+    private Duration hashingTimeout;
+
+    // BCrypt is CPU bound, a pool larger than the cores only adds queueing inside the OS
+    @Bean(destroyMethod = "shutdown")
+    public ThreadPoolExecutor passwordHashingExecutor(MeterRegistry meterRegistry) {
+        var executor = new ThreadPoolExecutor(hashingThreads, hashingThreads, 0, TimeUnit.MILLISECONDS,
+                new ArrayBlockingQueue<>(hashingQueueSize),
+                Thread.ofPlatform().name("password-hashing-", 0).daemon().factory(),
+                new ThreadPoolExecutor.AbortPolicy());
+        // executor.queued, executor.active, executor.completed... tagged name=passwordHashing
+        new ExecutorServiceMetrics(executor, "passwordHashing", Tags.empty()).bindTo(meterRegistry);
+        return executor;
+    }
+
     @Bean
-    public PasswordEncoder passwordEncoder() {
-        return new BCryptPasswordEncoder();
+    public PasswordEncoder passwordEncoder(ThreadPoolExecutor passwordHashingExecutor, MeterRegistry meterRegistry) {
+        return new BoundedPasswordEncoder(new BCryptPasswordEncoder(), passwordHashingExecutor,
+                hashingTimeout, meterRegistry);
     }
     @Bean
     public UserDetailsService userDetailsService() {
@@ -29,9 +59,9 @@ public class BeansConfig {
                 .orElseThrow(() -> new UsernameNotFoundException("Cannot find user with email = " + email));
     }
     @Bean
-    public AuthenticationProvider authenticationProvider() {
+    public AuthenticationProvider authenticationProvider(PasswordEncoder passwordEncoder) {
         var authProvider = new DaoAuthenticationProvider(userDetailsService());
-        authProvider.setPasswordEncoder(passwordEncoder());
+        authProvider.setPasswordEncoder(passwordEncoder);
         return authProvider;
     }
     @Bean
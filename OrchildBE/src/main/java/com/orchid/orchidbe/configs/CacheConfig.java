@@ -0,0 +1,63 @@
+package com.orchid.orchidbe.configs;
+
+import com.github.benmanes.caffeine.cache.Caffeine;
+import com.orchid.orchidbe.apis.EncodedResponse;
+import java.time.Duration;
+import java.util.List;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.cache.CacheManager;
+import org.springframework.cache.annotation.EnableCaching;
+import org.springframework.cache.caffeine.CaffeineCacheManager;
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Configuration;
+
+/**
+ * In-process caches for catalog reads. Entries expire after the TTL as a safety
+ * net, but catalog writes evict them explicitly through {@code CatalogVersion}.
+ * Stats are recorded so actuator reports hits, misses and evictions under
+ * {@code cache.gets} and {@code cache.evictions}.
+ */
+@Configuration
+@EnableCaching
+public class CacheConfig {
+
+    public static final String ORCHID_BY_ID = "orchidById";
+    public static final String AVAILABLE_ORCHID_PAGES = "availableOrchidPages";
+    public static final String AVAILABLE_ORCHID_RESPONSES = "availableOrchidResponses";
+
+    @Value("${cache.orchids.ttl:10m}")
+    private Duration orchidTtl;
+
+    @Value("${cache.orchids.max-size:10000}")
+    private long orchidMaxSize;
+
+    @Value("${cache.orchid-pages.max-size:1000}")
+    private long orchidPagesMaxSize;
+
+    @Value("${cache.orchid-responses.max-bytes:67108864}")
+    private long orchidResponsesMaxBytes;
+
+    @Bean
+    public CacheManager cacheManager() {
+        var cacheManager = new CaffeineCacheManager();
+        cacheManager.registerCustomCache(ORCHID_BY_ID, Caffeine.newBuilder()
+            .maximumSize(orchidMaxSize)
+            .expireAfterWrite(orchidTtl)
+            .recordStats()
+            .build());
+        cacheManager.registerCustomCache(AVAILABLE_ORCHID_PAGES, Caffeine.newBuilder()
+            .maximumSize(orchidPagesMaxSize)
+            .expireAfterWrite(orchidTtl)
+            .recordStats()
+            .build());
+        cacheManager.registerCustomCache(AVAILABLE_ORCHID_RESPONSES, Caffeine.newBuilder()
+            .maximumWeight(orchidResponsesMaxBytes)
+            .<Object, Object>weigher((key, value) -> ((EncodedResponse) value).weight())
+            .expireAfterWrite(orchidTtl)
+            .recordStats()
+            .build());
+        // Only the caches above exist; a typo in a cache name should fail loudly
+        cacheManager.setCacheNames(List.of());
+        return cacheManager;
+    }
+}
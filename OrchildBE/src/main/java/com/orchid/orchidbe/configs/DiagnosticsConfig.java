@@ -0,0 +1,112 @@
+package com.orchid.orchidbe.configs;
+
+import jakarta.servlet.FilterChain;
+import jakarta.servlet.ServletException;
+import jakarta.servlet.http.HttpServletRequest;
+import jakarta.servlet.http.HttpServletResponse;
+import java.io.IOException;
+import java.time.Duration;
+import java.util.UUID;
+import java.util.concurrent.TimeUnit;
+import java.util.regex.Pattern;
+import javax.sql.DataSource;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.slf4j.MDC;
+import org.springframework.beans.factory.ObjectProvider;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.beans.factory.config.BeanPostProcessor;
+import org.springframework.boot.web.servlet.FilterRegistrationBean;
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Configuration;
+import org.springframework.core.Ordered;
+import org.springframework.web.filter.OncePerRequestFilter;
+import org.springframework.web.servlet.HandlerMapping;
+
+/**
+ * Wraps the application DataSource in an {@link ObservedDataSource} feeding
+ * every {@link ObservedDataSource.Listener} bean, currently the query counter
+ * and the {@link SlowQueryLog}, and gives every request an id. The id is taken
+ * from {@code X-Request-Id} when the caller sent a usable one, echoed back,
+ * and kept in the MDC as {@value #REQUEST_ID} for everything logged while the
+ * request runs. Requests slower than {@code diagnostics.slow-request.threshold}
+ * are logged to {@code diagnostics.slow-request}.
+ */
+@Configuration(proxyBeanMethods = false)
+public class DiagnosticsConfig {
+
+    public static final String REQUEST_ID_HEADER = "X-Request-Id";
+    public static final String REQUEST_ID = "requestId";
+
+    @Bean
+    static BeanPostProcessor observedDataSource(ObjectProvider<ObservedDataSource.Listener> listeners) {
+        return new BeanPostProcessor() {
+            @Override
+            public Object postProcessAfterInitialization(Object bean, String beanName) {
+                if (!(bean instanceof DataSource dataSource)) {
+                    return bean;
+                }
+                var active = listeners.orderedStream().toList();
+                return active.isEmpty() ? bean : ObservedDataSource.wrap(dataSource, active);
+            }
+        };
+    }
+
+    // Outside the query count filter, so the slow request log can read the final count
+    @Bean
+    public FilterRegistrationBean<RequestDiagnosticsFilter> requestDiagnosticsFilter(
+            @Value("${diagnostics.slow-request.enabled:true}") boolean slowRequestEnabled,
+            @Value("${diagnostics.slow-request.threshold:1s}") Duration slowRequestThreshold) {
+        var filter = new RequestDiagnosticsFilter(slowRequestEnabled ? slowRequestThreshold.toNanos() : Long.MAX_VALUE);
+        var registration = new FilterRegistrationBean<>(filter);
+        registration.setOrder(Ordered.HIGHEST_PRECEDENCE);
+        return registration;
+    }
+
+    static class RequestDiagnosticsFilter extends OncePerRequestFilter {
+
+        private static final Logger log = LoggerFactory.getLogger("diagnostics.slow-request");
+        private static final Pattern USABLE_ID = Pattern.compile("[A-Za-z0-9._-]{1,64}");
+
+        private final long thresholdNanos;
+
+        RequestDiagnosticsFilter(long thresholdNanos) {
+            this.thresholdNanos = thresholdNanos;
+        }
+
+        @Override
+        protected void doFilterInternal(HttpServletRequest request, HttpServletResponse response, FilterChain chain)
+                throws ServletException, IOException {
+            String requestId = request.getHeader(REQUEST_ID_HEADER);
+            if (requestId == null || !USABLE_ID.matcher(requestId).matches()) {
+                requestId = UUID.randomUUID().toString();
+            }
+            MDC.put(REQUEST_ID, requestId);
+            response.setHeader(REQUEST_ID_HEADER, requestId);
+            long start = System.nanoTime();
+            try {
+                chain.doFilter(request, response);
+            } finally {
+                long nanos = System.nanoTime() - start;
+                if (nanos >= thresholdNanos) {
+                    logSlowRequest(request, response, nanos);
+                }
+                MDC.remove(REQUEST_ID);
+            }
+        }
+
+        private void logSlowRequest(HttpServletRequest request, HttpServletResponse response, long nanos) {
+            long millis = TimeUnit.NANOSECONDS.toMillis(nanos);
+            Object route = request.getAttribute(HandlerMapping.BEST_MATCHING_PATTERN_ATTRIBUTE);
+            Object queries = request.getAttribute(QueryCountConfig.QUERIES_ATTRIBUTE);
+            log.atWarn()
+                .addKeyValue("durationMs", millis)
+                .addKeyValue("method", request.getMethod())
+                .addKeyValue("uri", route == null ? "UNKNOWN" : route.toString())
+                .addKeyValue("path", request.getRequestURI())
+                .addKeyValue("status", response.getStatus())
+                .addKeyValue("queries", queries == null ? -1 : queries)
+                .log("Slow request {} {} took {} ms", request.getMethod(), request.getRequestURI(), millis);
+        }
+    }
+}
@@ -0,0 +1,227 @@
+package com.orchid.orchidbe.configs;
+
+import com.fasterxml.jackson.core.JsonProcessingException;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.github.benmanes.caffeine.cache.Cache;
+import com.github.benmanes.caffeine.cache.Caffeine;
+import com.orchid.orchidbe.exceptions.ThrottledException;
+import com.orchid.orchidbe.pojos.IdempotencyRecord;
+import com.orchid.orchidbe.repositories.IdempotencyRecordRepository;
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.MeterRegistry;
+import jakarta.annotation.PostConstruct;
+import java.nio.charset.StandardCharsets;
+import java.security.MessageDigest;
+import java.security.NoSuchAlgorithmException;
+import java.time.Duration;
+import java.time.LocalDateTime;
+import java.util.HexFormat;
+import java.util.Optional;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.TimeoutException;
+import java.util.function.Supplier;
+import java.util.regex.Pattern;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.dao.DataIntegrityViolationException;
+import org.springframework.http.HttpStatus;
+import org.springframework.security.core.Authentication;
+import org.springframework.security.core.context.SecurityContextHolder;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.support.TransactionTemplate;
+
+/**
+ * Runs a write at most once per {@code Idempotency-Key} of a caller within
+ * {@code idempotency.ttl}, replaying its response to retries. Concurrent
+ * duplicates wait on the one execution through a bounded in-memory map of
+ * futures, which also serves repeats within {@code idempotency.recent.ttl}
+ * without a lookup. The idempotency_keys table is the durable copy: its row
+ * is inserted in the transaction of the write, so a duplicate racing on
+ * another instance fails on the primary key, rolls back its own write and
+ * replays the winner. Failed writes are not remembered and can be retried
+ * with the same key.
+ */
+@Slf4j
+@Component
+public class IdempotencyStore {
+
+    public static final String HEADER = "Idempotency-Key";
+    public static final String REPLAYED_HEADER = "Idempotent-Replayed";
+
+    private static final Pattern USABLE_KEY = Pattern.compile("[\\x21-\\x7E]{1,255}");
+
+    private final IdempotencyRecordRepository repository;
+    private final TransactionTemplate transactionTemplate;
+    private final ObjectMapper objectMapper;
+    private final MeterRegistry meterRegistry;
+    private final Duration ttl;
+    private final Duration wait;
+    private final Cache<String, CompletableFuture<Stored>> recent;
+
+    public IdempotencyStore(IdempotencyRecordRepository repository,
+                            PlatformTransactionManager transactionManager,
+                            ObjectMapper objectMapper,
+                            MeterRegistry meterRegistry,
+                            @Value("${idempotency.ttl:24h}") Duration ttl,
+                            @Value("${idempotency.wait:10s}") Duration wait,
+                            @Value("${idempotency.recent.ttl:5m}") Duration recentTtl,
+                            @Value("${idempotency.recent.max-size:10000}") long recentMaxSize) {
+        this.repository = repository;
+        this.transactionTemplate = new TransactionTemplate(transactionManager);
+        this.objectMapper = objectMapper;
+        this.meterRegistry = meterRegistry;
+        this.ttl = ttl;
+        this.wait = wait;
+        this.recent = Caffeine.newBuilder()
+            .maximumSize(recentMaxSize)
+            .expireAfterWrite(recentTtl.compareTo(ttl) < 0 ? recentTtl : ttl)
+            .build();
+    }
+
+    @PostConstruct
+    void purge() {
+        int purged = repository.deleteExpired(LocalDateTime.now());
+        log.info("Purged {} expired idempotency keys", purged);
+    }
+
+    /**
+     * Runs {@code action} once for this caller and key, or returns what its
+     * first run returned. Without a key the action just runs.
+     *
+     * @param operation names the endpoint, with {@code request} it must match
+     *                  the first use of the key
+     * @throws IllegalArgumentException when the key is malformed or was used
+     *                                  for a different request
+     * @throws ThrottledException       with status 409 when the first run is
+     *                                  still going after {@code idempotency.wait}
+     */
+    public <T> Result<T> execute(String key, String operation, Object request, Class<T> type, Supplier<T> action) {
+        if (key == null) {
+            return new Result<>(action.get(), false);
+        }
+        if (!USABLE_KEY.matcher(key).matches()) {
+            throw new IllegalArgumentException(HEADER + " must be 1 to 255 printable ASCII characters");
+        }
+        String keyHash = sha256(caller() + '\n' + key);
+        String requestHash = sha256(operation + '\n' + json(request));
+
+        var mine = new CompletableFuture<Stored>();
+        var first = recent.asMap().putIfAbsent(keyHash, mine);
+        if (first != null) {
+            return replay(await(first), requestHash, type, "coalesced");
+        }
+        Stored stored;
+        try {
+            stored = durable(keyHash).orElse(null);
+            if (stored == null) {
+                var executed = transactionTemplate.execute(status -> {
+                    T value = action.get();
+                    var response = new Stored(requestHash, json(value));
+                    repository.saveAndFlush(new IdempotencyRecord(keyHash, requestHash, response.response(),
+                        LocalDateTime.now().plus(ttl)));
+                    return new Executed<>(value, response);
+                });
+                mine.complete(executed.stored());
+                outcomes("executed").increment();
+                return new Result<>(executed.value(), false);
+            }
+        } catch (RuntimeException e) {
+            // A duplicate on another instance committed the key first
+            stored = e instanceof DataIntegrityViolationException ? durable(keyHash).orElse(null) : null;
+            if (stored == null) {
+                recent.asMap().remove(keyHash, mine);
+                mine.completeExceptionally(e);
+                throw e;
+            }
+        }
+        mine.complete(stored);
+        return replay(stored, requestHash, type, "durable");
+    }
+
+    private Optional<Stored> durable(String keyHash) {
+        return repository.findById(keyHash).flatMap(record -> {
+            if (record.getExpiresAt().isAfter(LocalDateTime.now())) {
+                return Optional.of(new Stored(record.getRequestHash(), record.getResponse()));
+            }
+            // Expired keys are free again, and the insert needs the primary key
+            repository.delete(record);
+            return Optional.empty();
+        });
+    }
+
+    private Stored await(CompletableFuture<Stored> first) {
+        try {
+            return first.get(wait.toMillis(), TimeUnit.MILLISECONDS);
+        } catch (ExecutionException e) {
+            // The first run failed and was forgotten, the duplicate sees the same failure
+            if (e.getCause() instanceof RuntimeException cause) {
+                throw cause;
+            }
+            throw new IllegalStateException(e.getCause());
+        } catch (TimeoutException e) {
+            throw inProgress();
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+            throw inProgress();
+        }
+    }
+
+    private <T> Result<T> replay(Stored stored, String requestHash, Class<T> type, String source) {
+        if (!stored.requestHash().equals(requestHash)) {
+            throw new IllegalArgumentException(HEADER + " was already used for a different request");
+        }
+        outcomes("replayed-" + source).increment();
+        try {
+            return new Result<>(objectMapper.readValue(stored.response(), type), true);
+        } catch (JsonProcessingException e) {
+            throw new IllegalStateException("Unreadable stored response for " + HEADER, e);
+        }
+    }
+
+    private static ThrottledException inProgress() {
+        return new ThrottledException(HttpStatus.CONFLICT,
+            "A request with this " + HEADER + " is still in progress", Duration.ofSeconds(1));
+    }
+
+    private static String caller() {
+        Authentication authentication = SecurityContextHolder.getContext().getAuthentication();
+        return authentication == null ? "" : authentication.getName();
+    }
+
+    private String json(Object value) {
+        try {
+            return objectMapper.writeValueAsString(value);
+        } catch (JsonProcessingException e) {
+            throw new IllegalStateException(e);
+        }
+    }
+
+    private static String sha256(String text) {
+        try {
+            return HexFormat.of().formatHex(MessageDigest.getInstance("SHA-256")
+                .digest(text.getBytes(StandardCharsets.UTF_8)));
+        } catch (NoSuchAlgorithmException e) {
+            throw new IllegalStateException(e);
+        }
+    }
+
+    private Counter outcomes(String outcome) {
+        return Counter.builder("idempotency.requests")
+            .description("Requests with an Idempotency-Key, by whether they ran or replayed a stored response")
+            .tag("outcome", outcome)
+            .register(meterRegistry);
+    }
+
+    /** The value to respond with, and whether it was stored by an earlier request. */
+    public record Result<T>(T value, boolean replayed) {
+    }
+
+    private record Stored(String requestHash, String response) {
+    }
+
+    private record Executed<T>(T value, Stored stored) {
+    }
+}
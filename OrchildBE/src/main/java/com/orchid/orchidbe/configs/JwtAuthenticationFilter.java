@@ -2,6 +2,7 @@ package com.orchid.orchidbe.configs;
 
 
 import com.fasterxml.jackson.databind.ObjectMapper;
+import io.jsonwebtoken.Claims;
 import io.jsonwebtoken.JwtException;
 import jakarta.servlet.FilterChain;
 import jakarta.servlet.ServletException;
@@ -23,15 +24,35 @@ import java.io.IOException;
 import java.util.HashMap;
 import java.util.List;
 import java.util.Map;
+import java.util.Set;
 import java.util.stream.Collectors;
 
 @RequiredArgsConstructor
 public class JwtAuthenticationFilter extends OncePerRequestFilter {
 
+    /**
+     * Called with whatever access token the client still holds, often an
+     * expired one; they authenticate by refresh token and read the bearer
+     * token themselves, so a stale one must not turn them away.
+     */
+    public static final Set<String> SESSION_PATHS = Set.of("/api/v1/accounts/refresh", "/api/v1/accounts/logout");
+
     private final JwtUtil jwtUtil;
 
     private final UserDetailsService userDetailsService;
 
+    private final PrincipalCache principalCache;
+
+    private final TokenRevocationList revocationList;
+
+    // When false every request loads the account, as before stateless principals
+    private final boolean statelessPrincipal;
+
+    @Override
+    protected boolean shouldNotFilter(HttpServletRequest request) {
+        return SESSION_PATHS.contains(request.getRequestURI().substring(request.getContextPath().length()));
+    }
+
     @Override
     protected void doFilterInternal(HttpServletRequest request,
                                     HttpServletResponse response,
@@ -46,28 +67,44 @@ public class JwtAuthenticationFilter extends OncePerRequestFilter {
 
         String jwt = authHeader.substring(7);
 
-        if (!jwtUtil.validateToken(jwt)) {
-            response.setStatus(HttpServletResponse.SC_UNAUTHORIZED);
-            response.setContentType(MediaType.APPLICATION_JSON_VALUE);
-
-            Map<String, Object> errorDetails = new HashMap<>();
-            errorDetails.put("status", HttpServletResponse.SC_UNAUTHORIZED);
-            errorDetails.put("error", "Unauthorized");
-            errorDetails.put("message", "Invalid JWT token");
-            errorDetails.put("path", request.getRequestURI());
+        // One verification per request, everything below reads the same claims
+        Claims claims;
+        try {
+            claims = jwtUtil.verify(jwt);
+        } catch (JwtException | IllegalArgumentException e) {
+            unauthorized(request, response, "Invalid JWT token");
+            return;
+        }
 
-            new ObjectMapper().writeValue(response.getOutputStream(), errorDetails);
+        if (revocationList.isRevoked(claims.getId())) {
+            unauthorized(request, response, "Token has been revoked");
             return;
         }
 
-        String username = jwtUtil.getUsernameFromToken(jwt);
+        String username = claims.getSubject();
 
 
 
         if (username != null && SecurityContextHolder.getContext().getAuthentication() == null) {
-                var userDetails = userDetailsService.loadUserByUsername(username);
-                var authToken = new UsernamePasswordAuthenticationToken(
-                        userDetails, jwt, userDetails.getAuthorities());
+                UsernamePasswordAuthenticationToken authToken;
+                JwtPrincipal principal = statelessPrincipal ? jwtUtil.toPrincipal(claims) : null;
+                if (principal == null) {
+                    var userDetails = userDetailsService.loadUserByUsername(username);
+                    authToken = new UsernamePasswordAuthenticationToken(
+                            userDetails, jwt, userDetails.getAuthorities());
+                } else {
+                    if (isRevocationSensitive(request)) {
+                        // Writes use the current account state instead of what the token remembers
+                        var current = principalCache.get(username);
+                        if (current.isEmpty()) {
+                            unauthorized(request, response, "Account no longer exists");
+                            return;
+                        }
+                        principal = current.get();
+                    }
+                    authToken = new UsernamePasswordAuthenticationToken(
+                            principal, jwt, principal.authorities());
+                }
                 authToken.setDetails(new WebAuthenticationDetailsSource().buildDetails(request));
                 SecurityContextHolder.getContext().setAuthentication(authToken);
             }
@@ -77,4 +114,29 @@ public class JwtAuthenticationFilter extends OncePerRequestFilter {
 
         filterChain.doFilter(request, response);
     }
+
+    /**
+     * Requests that change state. A token stays valid until it expires, so for
+     * these the account and role are checked against the principal cache.
+     */
+    private static boolean isRevocationSensitive(HttpServletRequest request) {
+        return switch (request.getMethod()) {
+            case "GET", "HEAD", "OPTIONS" -> false;
+            default -> true;
+        };
+    }
+
+    private static void unauthorized(HttpServletRequest request, HttpServletResponse response,
+                                     String message) throws IOException {
+        response.setStatus(HttpServletResponse.SC_UNAUTHORIZED);
+        response.setContentType(MediaType.APPLICATION_JSON_VALUE);
+
+        Map<String, Object> errorDetails = new HashMap<>();
+        errorDetails.put("status", HttpServletResponse.SC_UNAUTHORIZED);
+        errorDetails.put("error", "Unauthorized");
+        errorDetails.put("message", message);
+        errorDetails.put("path", request.getRequestURI());
+
+        new ObjectMapper().writeValue(response.getOutputStream(), errorDetails);
+    }
 }
\ No newline at end of file
@@ -0,0 +1,27 @@
+package com.orchid.orchidbe.configs;
+
+import java.security.Principal;
+import java.util.Collection;
+import java.util.List;
+import org.springframework.security.core.GrantedAuthority;
+import org.springframework.security.core.authority.SimpleGrantedAuthority;
+
+/**
+ * Authenticated caller as described by a verified access token. Unlike the
+ * {@code Account} entity it can be built without touching the database, so
+ * {@code Authentication#getName()} is still the email and the account id comes
+ * straight from the token.
+ */
+public record JwtPrincipal(int accountId, String email, List<String> roles) implements Principal {
+
+    @Override
+    public String getName() {
+        return email;
+    }
+
+    public Collection<GrantedAuthority> authorities() {
+        return roles.stream()
+            .<GrantedAuthority>map(role -> new SimpleGrantedAuthority("ROLE_" + role))
+            .toList();
+    }
+}
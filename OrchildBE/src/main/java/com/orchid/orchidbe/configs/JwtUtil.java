@@ -1,88 +1,161 @@
 package com.orchid.orchidbe.configs;
 
+import com.github.benmanes.caffeine.cache.Cache;
+import com.github.benmanes.caffeine.cache.Caffeine;
+import com.github.benmanes.caffeine.cache.Expiry;
 import com.orchid.orchidbe.pojos.Account;
+import io.jsonwebtoken.Claims;
 import io.jsonwebtoken.JwtException;
+import io.jsonwebtoken.JwtParser;
 import io.jsonwebtoken.Jwts;
 import io.jsonwebtoken.SignatureAlgorithm;
 import io.jsonwebtoken.security.Keys;
-import jakarta.annotation.PostConstruct;
 import org.springframework.beans.factory.annotation.Value;
 import org.springframework.stereotype.Component;
 
 import javax.crypto.SecretKey;
 import java.nio.charset.StandardCharsets;
+import java.security.MessageDigest;
+import java.security.NoSuchAlgorithmException;
+import java.util.Base64;
 import java.util.Date;
 import java.util.HashMap;
 import java.util.List;
 import java.util.Map;
+import java.util.UUID;
+import java.util.concurrent.TimeUnit;
 
 @Component
 public class JwtUtil {
-    @Value("${jwt.secret}")
-    private String secret;
 
-    @Value("${jwt.expiration}")
-    private Long expirationTime;
+    private final Long expirationTime;
 
-    private SecretKey key;
-    @PostConstruct
-    public void initializeKey() {
-        key = Keys.hmacShaKeyFor(secret.getBytes(StandardCharsets.UTF_8));
+    private final SecretKey key;
+
+    // Immutable once built, one instance serves every request thread
+    private final JwtParser parser;
+
+    // Claims of recently verified tokens keyed by token hash; null when disabled
+    private final Cache<String, Claims> verified;
+
+    public JwtUtil(@Value("${jwt.secret}") String secret,
+                   @Value("${jwt.expiration}") Long expirationTime,
+                   @Value("${jwt.verified-cache.max-size:10000}") long verifiedCacheSize) {
+        this.expirationTime = expirationTime;
+        this.key = Keys.hmacShaKeyFor(secret.getBytes(StandardCharsets.UTF_8));
+        this.parser = Jwts.parserBuilder()
+                .setSigningKey(key)
+                .build();
+        this.verified = verifiedCacheSize <= 0 ? null : Caffeine.newBuilder()
+                .maximumSize(verifiedCacheSize)
+                .expireAfter(new UntilTokenExpiry())
+                .build();
     }
 
     public String generateToken(Account account) {
-        if (key == null) {
-            initializeKey();
-        }
         Map<String, Object> claims = new HashMap<>();
         claims.put("authorities", List.of(account.getRole().getName()));
+        claims.put("accountId", account.getId());
 
         return Jwts.builder()
                 .setClaims(claims)
                 .setSubject(account.getEmail()) // Dùng username làm "chủ thể"
+                .setId(UUID.randomUUID().toString()) // jti, what revocation refers to
                 .setIssuedAt(new Date(System.currentTimeMillis()))
                 .setExpiration(new Date(System.currentTimeMillis() + expirationTime))
                 .signWith(key, SignatureAlgorithm.HS256)
                 .compact();
     }
 
+    /**
+     * Verifies the signature and expiry once and returns the claims. A token
+     * seen recently is answered from the cache until it expires, so a client
+     * reusing its token pays for a hash instead of a parse.
+     *
+     * @throws JwtException if the token is malformed, forged or expired
+     */
+    public Claims verify(String token) {
+        if (token == null || token.isBlank()) {
+            throw new JwtException("Missing JWT token");
+        }
+        if (verified == null) {
+            return parser.parseClaimsJws(token).getBody();
+        }
+        String hash = hash(token);
+        Claims claims = verified.getIfPresent(hash);
+        if (claims == null) {
+            claims = parser.parseClaimsJws(token).getBody();
+            verified.put(hash, claims);
+        }
+        return claims;
+    }
 
     public String getUsernameFromToken(String token) {
-        if (key == null) {
-            initializeKey();
-        }
-        return Jwts.parserBuilder()
-                .setSigningKey(key)
-                .build()
-                .parseClaimsJws(token)
-                .getBody()
-                .getSubject();
+        return verify(token).getSubject();
     }
 
+    @SuppressWarnings("unchecked")
     public List<String> getRolesFromToken(String token) {
-        if (key == null) {
-            initializeKey();
+        return verify(token).get("authorities", List.class);
+    }
+
+    public JwtPrincipal getPrincipalFromToken(String token) {
+        return toPrincipal(verify(token));
+    }
+
+    /**
+     * Principal built from verified claims alone. Null for tokens issued
+     * before the account id claim existed, callers then fall back to a lookup.
+     */
+    @SuppressWarnings("unchecked")
+    public JwtPrincipal toPrincipal(Claims claims) {
+        Integer accountId = claims.get("accountId", Integer.class);
+        if (accountId == null) {
+            return null;
         }
-        return Jwts.parserBuilder()
-                .setSigningKey(key)
-                .build()
-                .parseClaimsJws(token)
-                .getBody()
-                .get("authorities", List.class);
+        return new JwtPrincipal(accountId, claims.getSubject(), claims.get("authorities", List.class));
     }
 
     public boolean validateToken(String token) {
-        if (key == null) {
-            initializeKey();
-        }
         try {
-            Jwts.parserBuilder()
-                    .setSigningKey(key)
-                    .build()
-                    .parseClaimsJws(token);
+            verify(token);
             return true;
         } catch (JwtException | IllegalArgumentException e) {
             return false;
         }
     }
+
+    // The cache holds digests, not the bearer tokens themselves
+    private static String hash(String token) {
+        try {
+            byte[] digest = MessageDigest.getInstance("SHA-256")
+                    .digest(token.getBytes(StandardCharsets.US_ASCII));
+            return Base64.getEncoder().encodeToString(digest);
+        } catch (NoSuchAlgorithmException e) {
+            throw new IllegalStateException(e);
+        }
+    }
+
+    private static final class UntilTokenExpiry implements Expiry<String, Claims> {
+
+        @Override
+        public long expireAfterCreate(String key, Claims claims, long currentTime) {
+            Date expiration = claims.getExpiration();
+            if (expiration == null) {
+                return 0;
+            }
+            long millis = expiration.getTime() - System.currentTimeMillis();
+            return TimeUnit.MILLISECONDS.toNanos(Math.max(millis, 0));
+        }
+
+        @Override
+        public long expireAfterUpdate(String key, Claims claims, long currentTime, long currentDuration) {
+            return currentDuration;
+        }
+
+        @Override
+        public long expireAfterRead(String key, Claims claims, long currentTime, long currentDuration) {
+            return currentDuration;
+        }
+    }
 }
@@ -0,0 +1,103 @@
+package com.orchid.orchidbe.configs;
+
+import com.github.benmanes.caffeine.cache.Cache;
+import com.github.benmanes.caffeine.cache.Caffeine;
+import com.orchid.orchidbe.exceptions.ThrottledException;
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.MeterRegistry;
+import java.time.Duration;
+import java.util.Locale;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.http.HttpStatus;
+import org.springframework.stereotype.Component;
+
+/**
+ * Token buckets in front of the password endpoints, one per client address
+ * and one per email. The address bucket stops a single client from spraying
+ * many accounts, the email bucket stops many clients from guessing one.
+ * Buckets nobody touched for a while are dropped, an absent bucket is full.
+ */
+@Component
+public class LoginThrottle {
+
+    private final Limit perIp;
+    private final Limit perEmail;
+    private final Cache<String, TokenBucket> buckets;
+    private final MeterRegistry meterRegistry;
+
+    public LoginThrottle(@Value("${auth.throttle.ip.capacity:20}") int ipCapacity,
+                         @Value("${auth.throttle.ip.refill:1m}") Duration ipRefill,
+                         @Value("${auth.throttle.email.capacity:5}") int emailCapacity,
+                         @Value("${auth.throttle.email.refill:1m}") Duration emailRefill,
+                         @Value("${auth.throttle.max-keys:100000}") long maxKeys,
+                         MeterRegistry meterRegistry) {
+        this.perIp = new Limit(ipCapacity, ipRefill);
+        this.perEmail = new Limit(emailCapacity, emailRefill);
+        this.buckets = Caffeine.newBuilder()
+            .maximumSize(maxKeys)
+            .expireAfterAccess(ipRefill.compareTo(emailRefill) > 0 ? ipRefill : emailRefill)
+            .build();
+        this.meterRegistry = meterRegistry;
+    }
+
+    /**
+     * Takes a token from both buckets of the caller.
+     *
+     * @throws ThrottledException with status 429 when either bucket is empty
+     */
+    public void acquire(String endpoint, String ip, String email) {
+        take(endpoint, "ip", ip, perIp);
+        if (email != null && !email.isBlank()) {
+            take(endpoint, "email", email.trim().toLowerCase(Locale.ROOT), perEmail);
+        }
+    }
+
+    private void take(String endpoint, String kind, String key, Limit limit) {
+        var bucket = buckets.get(endpoint + ':' + kind + ':' + key, k -> new TokenBucket(limit));
+        long waitNanos = bucket.tryConsume();
+        if (waitNanos > 0) {
+            rejected(endpoint, kind).increment();
+            throw new ThrottledException(HttpStatus.TOO_MANY_REQUESTS,
+                "Too many attempts, please try again later", Duration.ofNanos(waitNanos));
+        }
+    }
+
+    private Counter rejected(String endpoint, String kind) {
+        return Counter.builder("auth.throttle.rejected")
+            .description("Login and registration attempts rejected by the rate limiter")
+            .tag("endpoint", endpoint)
+            .tag("key", kind)
+            .register(meterRegistry);
+    }
+
+    private record Limit(int capacity, Duration refill) {
+
+        long nanosPerToken() {
+            return refill.toNanos() / capacity;
+        }
+    }
+
+    private static final class TokenBucket {
+
+        private final Limit limit;
+        private double tokens;
+        private long refilledAt = System.nanoTime();
+
+        TokenBucket(Limit limit) {
+            this.limit = limit;
+            this.tokens = limit.capacity();
+        }
+
+        /** Zero when a token was taken, otherwise the nanos until one is available. */
+        synchronized long tryConsume() {
+            long now = System.nanoTime();
+            tokens = Math.min(limit.capacity(), tokens + (double) (now - refilledAt) / limit.nanosPerToken());
+            refilledAt = now;
+            if (tokens >= 1) {
+                tokens -= 1;
+                return 0;
+            }
+            return (long) ((1 - tokens) * limit.nanosPerToken());
+        }
+    }
+}
@@ -0,0 +1,134 @@
+package com.orchid.orchidbe.configs;
+
+import java.lang.reflect.InvocationHandler;
+import java.lang.reflect.InvocationTargetException;
+import java.lang.reflect.Method;
+import java.lang.reflect.Proxy;
+import java.sql.CallableStatement;
+import java.sql.Connection;
+import java.sql.PreparedStatement;
+import java.sql.Statement;
+import java.util.List;
+import java.util.Map;
+import java.util.TreeMap;
+import javax.sql.DataSource;
+
+/**
+ * DataSource wrapper that reports every JDBC round trip to a set of
+ * listeners: every execute call and every executed batch is one. Wraps the
+ * application DataSource (see {@link DiagnosticsConfig}), so JPA and
+ * JdbcTemplate are both seen.
+ */
+public final class ObservedDataSource {
+
+    /** Told about each round trip on the thread that made it. */
+    public interface Listener {
+
+        /** Whether bound parameters should be recorded, which costs a map entry per set call. */
+        default boolean capturesParameters() {
+            return false;
+        }
+
+        /**
+         * @param sql        the statement text, null if the driver call did not expose it
+         * @param parameters bound parameters by index, empty unless captured; for a batch, its last row
+         * @param batchSize  rows in an executed batch, 0 for a single execution
+         */
+        void executed(String sql, Map<Integer, Object> parameters, int batchSize, long nanos);
+    }
+
+    private ObservedDataSource() {
+    }
+
+    public static DataSource wrap(DataSource target, List<Listener> listeners) {
+        boolean captureParameters = listeners.stream().anyMatch(Listener::capturesParameters);
+        return proxy(DataSource.class, target, (proxy, method, args) -> {
+            Object result = invoke(target, method, args);
+            return result instanceof Connection connection
+                ? wrapConnection(connection, listeners, captureParameters)
+                : result;
+        });
+    }
+
+    private static Connection wrapConnection(Connection target, List<Listener> listeners, boolean captureParameters) {
+        return proxy(Connection.class, target, (proxy, method, args) -> {
+            Object result = invoke(target, method, args);
+            if (!(result instanceof Statement statement)) {
+                return result;
+            }
+            // prepareStatement and prepareCall take the SQL first, createStatement takes it per execute
+            String sql = args != null && args.length > 0 && args[0] instanceof String text ? text : null;
+            return wrapStatement(statement, sql, listeners, captureParameters);
+        });
+    }
+
+    private static Statement wrapStatement(Statement target, String preparedSql, List<Listener> listeners,
+                                           boolean captureParameters) {
+        Class<? extends Statement> type = target instanceof CallableStatement ? CallableStatement.class
+            : target instanceof PreparedStatement ? PreparedStatement.class
+            : Statement.class;
+        var state = new StatementState(preparedSql);
+        return proxy(type, target, (proxy, method, args) -> {
+            String name = method.getName();
+            if (captureParameters && name.startsWith("set") && args != null && args.length >= 2
+                    && args[0] instanceof Integer index) {
+                state.parameters.put(index, args[1]);
+            } else if (captureParameters && name.equals("clearParameters")) {
+                state.parameters.clear();
+            } else if (name.equals("addBatch")) {
+                state.batchSize++;
+                if (args != null && args.length == 1 && args[0] instanceof String sql) {
+                    state.lastSql = sql;
+                }
+            } else if (name.equals("clearBatch")) {
+                state.batchSize = 0;
+            }
+            if (!name.startsWith("execute")) {
+                return invoke(target, method, args);
+            }
+
+            long start = System.nanoTime();
+            try {
+                return invoke(target, method, args);
+            } finally {
+                long nanos = System.nanoTime() - start;
+                boolean batch = name.equals("executeBatch") || name.equals("executeLargeBatch");
+                String sql = !batch && args != null && args.length > 0 && args[0] instanceof String text
+                    ? text
+                    : state.lastSql;
+                int batchSize = batch ? state.batchSize : 0;
+                if (batch) {
+                    state.batchSize = 0;
+                }
+                for (Listener listener : listeners) {
+                    listener.executed(sql, state.parameters, batchSize, nanos);
+                }
+            }
+        });
+    }
+
+    @SuppressWarnings("unchecked")
+    private static <T> T proxy(Class<?> type, T target, InvocationHandler handler) {
+        return (T) Proxy.newProxyInstance(ObservedDataSource.class.getClassLoader(), new Class<?>[] {type}, handler);
+    }
+
+    private static Object invoke(Object target, Method method, Object[] args) throws Throwable {
+        try {
+            return method.invoke(target, args);
+        } catch (InvocationTargetException e) {
+            throw e.getTargetException();
+        }
+    }
+
+    // A statement is used by one thread at a time, like the JDBC objects it wraps
+    private static final class StatementState {
+
+        final Map<Integer, Object> parameters = new TreeMap<>();
+        String lastSql;
+        int batchSize;
+
+        StatementState(String sql) {
+            this.lastSql = sql;
+        }
+    }
+}
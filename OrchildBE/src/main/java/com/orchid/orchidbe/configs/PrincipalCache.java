@@ -0,0 +1,55 @@
+package com.orchid.orchidbe.configs;
+
+import com.github.benmanes.caffeine.cache.Cache;
+import com.github.benmanes.caffeine.cache.Caffeine;
+import com.orchid.orchidbe.repositories.AccountRepository;
+import java.time.Duration;
+import java.util.List;
+import java.util.Optional;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Component;
+
+/**
+ * Current state of accounts for requests that must not trust a token alone.
+ * Entries live for a short TTL, so a deleted or demoted account loses write
+ * access within that window even if nobody evicts it, and account updates
+ * evict right away.
+ */
+@Component
+public class PrincipalCache {
+
+    private final AccountRepository accountRepository;
+    private final Cache<String, Optional<JwtPrincipal>> principals;
+
+    public PrincipalCache(AccountRepository accountRepository,
+                          @Value("${jwt.principal-cache.ttl:30s}") Duration ttl,
+                          @Value("${jwt.principal-cache.max-size:10000}") long maxSize) {
+        this.accountRepository = accountRepository;
+        this.principals = Caffeine.newBuilder()
+            .expireAfterWrite(ttl)
+            .maximumSize(maxSize)
+            .build();
+    }
+
+    /** Empty when the account no longer exists. */
+    public Optional<JwtPrincipal> get(String email) {
+        // Not principals.get(email, loader): the loader runs inside a map bin lock,
+        // which pins a virtual thread for the whole query. A racing miss loads twice.
+        Optional<JwtPrincipal> principal = principals.getIfPresent(email);
+        if (principal == null) {
+            principal = load(email);
+            principals.put(email, principal);
+        }
+        return principal;
+    }
+
+    public void evict(String email) {
+        principals.invalidate(email);
+    }
+
+    private Optional<JwtPrincipal> load(String email) {
+        return accountRepository.findByEmail(email)
+            .map(account -> new JwtPrincipal(account.getId(), account.getEmail(),
+                List.of(account.getRole().getName())));
+    }
+}
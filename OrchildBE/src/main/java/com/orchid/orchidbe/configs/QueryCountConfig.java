@@ -0,0 +1,72 @@
+package com.orchid.orchidbe.configs;
+
+import io.micrometer.core.instrument.DistributionSummary;
+import io.micrometer.core.instrument.MeterRegistry;
+import jakarta.servlet.FilterChain;
+import jakarta.servlet.ServletException;
+import jakarta.servlet.http.HttpServletRequest;
+import jakarta.servlet.http.HttpServletResponse;
+import java.io.IOException;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.boot.web.servlet.FilterRegistrationBean;
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Configuration;
+import org.springframework.core.Ordered;
+import org.springframework.web.filter.OncePerRequestFilter;
+import org.springframework.web.servlet.HandlerMapping;
+
+/**
+ * SQL round trips per HTTP request, recorded as
+ * {@code http.server.requests.queries} by method and route. Off unless
+ * {@code query-count.enabled} is set, as in the dev and h2 profiles. With
+ * {@code query-count.header} set, responses also carry the count so far in
+ * {@code X-Query-Count} (see {@link QueryCountHeaderAdvice}).
+ */
+@Configuration(proxyBeanMethods = false)
+@ConditionalOnProperty(name = "query-count.enabled", havingValue = "true")
+public class QueryCountConfig {
+
+    /** Request attribute holding the final count, for filters further out such as the slow request log. */
+    static final String QUERIES_ATTRIBUTE = QueryCountConfig.class.getName() + ".queries";
+
+    @Bean
+    public ObservedDataSource.Listener queryCountListener() {
+        return QueryCounter.LISTENER;
+    }
+
+    // Ahead of Spring Security, so lookups made while authenticating are counted too
+    @Bean
+    public FilterRegistrationBean<QueryCountFilter> queryCountFilter(MeterRegistry meterRegistry) {
+        var registration = new FilterRegistrationBean<>(new QueryCountFilter(meterRegistry));
+        registration.setOrder(Ordered.HIGHEST_PRECEDENCE + 10);
+        return registration;
+    }
+
+    static class QueryCountFilter extends OncePerRequestFilter {
+
+        private final MeterRegistry meterRegistry;
+
+        QueryCountFilter(MeterRegistry meterRegistry) {
+            this.meterRegistry = meterRegistry;
+        }
+
+        @Override
+        protected void doFilterInternal(HttpServletRequest request, HttpServletResponse response, FilterChain chain)
+                throws ServletException, IOException {
+            QueryCounter.begin();
+            try {
+                chain.doFilter(request, response);
+            } finally {
+                int queries = QueryCounter.end();
+                request.setAttribute(QUERIES_ATTRIBUTE, queries);
+                Object route = request.getAttribute(HandlerMapping.BEST_MATCHING_PATTERN_ATTRIBUTE);
+                DistributionSummary.builder("http.server.requests.queries")
+                    .description("SQL round trips per request")
+                    .tag("method", request.getMethod())
+                    .tag("uri", route == null ? "UNKNOWN" : route.toString())
+                    .register(meterRegistry)
+                    .record(queries);
+            }
+        }
+    }
+}
@@ -0,0 +1,45 @@
+package com.orchid.orchidbe.configs;
+
+/**
+ * Counts JDBC round trips made by the current thread between {@link #begin()}
+ * and {@link #end()}. {@link QueryCountConfig} registers {@link #LISTENER}
+ * with the {@link ObservedDataSource} and opens a count around every HTTP
+ * request. Statements outside a count are not counted.
+ */
+public final class QueryCounter {
+
+    private static final ThreadLocal<Count> CURRENT = new ThreadLocal<>();
+
+    public static final ObservedDataSource.Listener LISTENER = (sql, parameters, batchSize, nanos) -> {
+        Count count = CURRENT.get();
+        if (count != null) {
+            count.value++;
+        }
+    };
+
+    private QueryCounter() {
+    }
+
+    /** Starts counting on this thread, discarding any count already open. */
+    public static void begin() {
+        CURRENT.set(new Count());
+    }
+
+    /** Stops counting on this thread and returns the count, 0 if none was open. */
+    public static int end() {
+        Count count = CURRENT.get();
+        CURRENT.remove();
+        return count == null ? 0 : count.value;
+    }
+
+    /** Round trips so far in the open count, 0 if none is open. */
+    public static int current() {
+        Count count = CURRENT.get();
+        return count == null ? 0 : count.value;
+    }
+
+    // Only ever touched by its own thread
+    private static final class Count {
+        int value;
+    }
+}
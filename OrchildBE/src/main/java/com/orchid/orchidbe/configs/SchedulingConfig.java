@@ -0,0 +1,13 @@
+package com.orchid.orchidbe.configs;
+
+import org.springframework.context.annotation.Configuration;
+import org.springframework.scheduling.annotation.EnableScheduling;
+
+/**
+ * Background jobs run on Spring's scheduler; each one can be switched off
+ * through its own {@code *.enabled} property.
+ */
+@Configuration(proxyBeanMethods = false)
+@EnableScheduling
+public class SchedulingConfig {
+}
@@ -2,9 +2,13 @@ package com.orchid.orchidbe.configs;
 
 import jakarta.servlet.http.HttpServletResponse;
 import lombok.RequiredArgsConstructor;
+import org.springframework.boot.actuate.autoconfigure.security.servlet.EndpointRequest;
+import org.springframework.boot.web.context.WebServerInitializedEvent;
 import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
 import org.springframework.context.annotation.Bean;
 import org.springframework.context.annotation.Configuration;
+import org.springframework.context.event.EventListener;
 import org.springframework.security.config.annotation.method.configuration.EnableGlobalMethodSecurity;
 import org.springframework.security.config.annotation.method.configuration.EnableMethodSecurity;
 import org.springframework.security.config.annotation.web.builders.HttpSecurity;
@@ -15,12 +19,14 @@ import org.springframework.security.crypto.bcrypt.BCryptPasswordEncoder;
 import org.springframework.security.crypto.password.PasswordEncoder;
 import org.springframework.security.web.SecurityFilterChain;
 import org.springframework.security.web.authentication.UsernamePasswordAuthenticationFilter;
+import org.springframework.security.web.util.matcher.RequestMatcher;
 import org.springframework.web.cors.CorsConfiguration;
 import org.springframework.web.cors.CorsConfigurationSource;
 import org.springframework.web.cors.UrlBasedCorsConfigurationSource;
 
 import java.util.Arrays;
 import java.util.List;
+import java.util.concurrent.atomic.AtomicInteger;
 
 @Configuration
 @EnableMethodSecurity(prePostEnabled = true)
@@ -35,6 +41,16 @@ public class SecurityConfig {
 
     private final JwtUtil jwtUtil;
 
+    private final PrincipalCache principalCache;
+
+    private final TokenRevocationList revocationList;
+
+    @Value("${jwt.stateless-principal:true}")
+    private boolean statelessPrincipal;
+
+    // Port of the separate actuator listener once it is up; -1 while actuator shares the API port
+    private final AtomicInteger managementPort = new AtomicInteger(-1);
+
     @Bean
     public SecurityFilterChain filterChain(HttpSecurity http) throws Exception {
         return http
@@ -43,7 +59,12 @@ public class SecurityConfig {
                 .sessionManagement(session -> session.sessionCreationPolicy(SessionCreationPolicy.STATELESS))
                 .authorizeHttpRequests(auth -> auth
                         .requestMatchers("/api/v1/accounts/login","/api/v1/accounts/register").permitAll()
+                        // The access token may already have expired when these are called
+                        .requestMatchers(JwtAuthenticationFilter.SESSION_PATHS.toArray(String[]::new)).permitAll()
                         .requestMatchers("/v3/api-docs/**", "/swagger-ui/**","swagger-ui.html/**").permitAll()
+                        // Scraped without a token, so only through the management listener bound to loopback
+                        .requestMatchers(onManagementPort(EndpointRequest.to("prometheus"))).permitAll()
+                        .requestMatchers(EndpointRequest.toAnyEndpoint()).hasRole("Admin")
                         .anyRequest().authenticated()
                 )
                 .exceptionHandling(exception -> exception
@@ -55,9 +76,25 @@ public class SecurityConfig {
                 .build();
     }
 
+    /**
+     * Matches only requests accepted by the management listener. The local port
+     * is the socket the connection arrived on, so unlike the remote address it
+     * cannot be made to look local by a proxy on the same host.
+     */
+    private RequestMatcher onManagementPort(RequestMatcher endpoint) {
+        return request -> request.getLocalPort() == managementPort.get() && endpoint.matches(request);
+    }
+
+    @EventListener
+    public void onWebServerInitialized(WebServerInitializedEvent event) {
+        if ("management".equals(event.getApplicationContext().getServerNamespace())) {
+            managementPort.set(event.getWebServer().getPort());
+        }
+    }
+
     @Bean
     public JwtAuthenticationFilter jwtAuthenticationFilter() {
-        return new JwtAuthenticationFilter(jwtUtil, userDetailsService);
+        return new JwtAuthenticationFilter(jwtUtil, userDetailsService, principalCache, revocationList, statelessPrincipal);
     }
 
 
@@ -67,6 +104,8 @@ public class SecurityConfig {
         configuration.setAllowedOrigins(List.of("http://localhost:5173"));
         configuration.setAllowedMethods(Arrays.asList("GET", "POST", "PUT", "DELETE", "OPTIONS"));
         configuration.setAllowedHeaders(List.of("*"));
+        // The browser app reads whether an order response was replayed
+        configuration.setExposedHeaders(List.of(IdempotencyStore.REPLAYED_HEADER));
         configuration.setAllowCredentials(true);
         configuration.setMaxAge(3600L);
 
@@ -0,0 +1,62 @@
+package com.orchid.orchidbe.configs;
+
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.Timer;
+import lombok.RequiredArgsConstructor;
+import org.aspectj.lang.ProceedingJoinPoint;
+import org.aspectj.lang.annotation.Around;
+import org.aspectj.lang.annotation.Aspect;
+import org.slf4j.MDC;
+import org.springframework.core.Ordered;
+import org.springframework.core.annotation.Order;
+import org.springframework.stereotype.Component;
+
+/**
+ * Times every public method of the {@code *ServiceImpl} beans as
+ * {@code service.method}, tagged with the class, the method and the exception
+ * that escaped it, if any. Controllers are covered by
+ * {@code http.server.requests} and repositories by
+ * {@code spring.data.repository.invocations}, so together they show where a
+ * slow request spent its time. While the method runs its name is kept in the
+ * MDC as {@value #SERVICE_METHOD}, so statements logged by the
+ * {@link SlowQueryLog} name the service call that made them.
+ */
+@Aspect
+@Component
+// Outside the transaction, so the flush at commit is timed and attributed too
+@Order(Ordered.HIGHEST_PRECEDENCE)
+@RequiredArgsConstructor
+public class ServiceMetricsAspect {
+
+    public static final String SERVICE_METHOD = "serviceMethod";
+
+    private final MeterRegistry meterRegistry;
+
+    @Around("execution(public * com.orchid.orchidbe.services..*ServiceImpl.*(..))")
+    public Object time(ProceedingJoinPoint joinPoint) throws Throwable {
+        var sample = Timer.start(meterRegistry);
+        String exception = "none";
+        // Services call each other, so put the caller back on the way out
+        String caller = MDC.get(SERVICE_METHOD);
+        MDC.put(SERVICE_METHOD, joinPoint.getSignature().getDeclaringType().getSimpleName()
+                + '.' + joinPoint.getSignature().getName());
+        try {
+            return joinPoint.proceed();
+        } catch (Throwable e) {
+            exception = e.getClass().getSimpleName();
+            throw e;
+        } finally {
+            if (caller == null) {
+                MDC.remove(SERVICE_METHOD);
+            } else {
+                MDC.put(SERVICE_METHOD, caller);
+            }
+            sample.stop(Timer.builder("service.method")
+                    .description("Time spent in service methods")
+                    .tag("class", joinPoint.getSignature().getDeclaringType().getSimpleName())
+                    .tag("method", joinPoint.getSignature().getName())
+                    .tag("exception", exception)
+                    .register(meterRegistry));
+        }
+    }
+}
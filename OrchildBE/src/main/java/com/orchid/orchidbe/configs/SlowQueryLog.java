@@ -0,0 +1,198 @@
+package com.orchid.orchidbe.configs;
+
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Locale;
+import java.util.Map;
+import java.util.Set;
+import java.util.StringJoiner;
+import java.util.concurrent.TimeUnit;
+import java.util.regex.Matcher;
+import java.util.regex.Pattern;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.stereotype.Component;
+
+/**
+ * Logs statements slower than {@code diagnostics.slow-query.threshold} to
+ * {@code diagnostics.slow-query}, with the SQL and, from the MDC, the request
+ * id and the service method that ran it. The logger writes through an async
+ * appender (see {@code logback-spring.xml}), so the statement thread only pays
+ * for building the event.
+ * <p>
+ * Bound parameters are only logged with {@code diagnostics.slow-query.parameters}
+ * set, as in the dev profile: recording them costs every statement a map entry
+ * per bound value, slow or not. Parameters bound to the columns in
+ * {@code diagnostics.slow-query.redact} are replaced with {@value #REDACTED}.
+ */
+@Component
+@ConditionalOnProperty(name = "diagnostics.slow-query.enabled", havingValue = "true", matchIfMissing = true)
+public class SlowQueryLog implements ObservedDataSource.Listener {
+
+    static final String REDACTED = "<redacted>";
+
+    private static final Logger log = LoggerFactory.getLogger("diagnostics.slow-query");
+    private static final Pattern INSERT = Pattern.compile(
+        "^\\s*insert\\s+into\\s+([\\w.\\[\\]\"]+)\\s*\\(([^)]*)\\)\\s*values", Pattern.CASE_INSENSITIVE);
+    private static final int MAX_PARAMETER_LENGTH = 200;
+
+    private final long thresholdNanos;
+    private final List<RedactedColumn> redacted;
+    private final int maxSqlLength;
+    private final boolean logParameters;
+
+    public SlowQueryLog(@Value("${diagnostics.slow-query.threshold:200ms}") Duration threshold,
+                        @Value("${diagnostics.slow-query.redact:accounts.password}") List<String> redact,
+                        @Value("${diagnostics.slow-query.max-sql-length:2000}") int maxSqlLength,
+                        @Value("${diagnostics.slow-query.parameters:false}") boolean logParameters) {
+        this.thresholdNanos = threshold.toNanos();
+        this.redacted = redact.stream().map(RedactedColumn::parse).toList();
+        this.maxSqlLength = maxSqlLength;
+        this.logParameters = logParameters;
+    }
+
+    @Override
+    public boolean capturesParameters() {
+        return logParameters;
+    }
+
+    @Override
+    public void executed(String sql, Map<Integer, Object> parameters, int batchSize, long nanos) {
+        if (nanos < thresholdNanos || !log.isWarnEnabled()) {
+            return;
+        }
+        long millis = TimeUnit.NANOSECONDS.toMillis(nanos);
+        String statement = sql == null ? "" : truncate(sql.replaceAll("\\s+", " ").trim(), maxSqlLength);
+        var event = log.atWarn()
+            .addKeyValue("durationMs", millis)
+            .addKeyValue("sql", statement)
+            .addKeyValue("batchSize", batchSize);
+        if (logParameters) {
+            event = event.addKeyValue("parameters", describe(sql, parameters));
+        }
+        event.log("Slow query took {} ms: {}", millis, statement);
+    }
+
+    String describe(String sql, Map<Integer, Object> parameters) {
+        if (parameters.isEmpty()) {
+            return "[]";
+        }
+        Set<Integer> hidden = redactedParameters(sql);
+        var joiner = new StringJoiner(", ", "[", "]");
+        parameters.forEach((index, value) -> joiner.add(index + "="
+            + (hidden.contains(index) ? REDACTED : format(value))));
+        return joiner.toString();
+    }
+
+    /**
+     * Indexes of the placeholders bound to a redacted column: those compared
+     * to it, as in {@code password=?}, and those in its position of an
+     * {@code insert into ... (...) values} list. Hibernate writes both shapes.
+     */
+    Set<Integer> redactedParameters(String sql) {
+        if (sql == null) {
+            return Set.of();
+        }
+        String lower = sql.toLowerCase(Locale.ROOT);
+        List<RedactedColumn> columns = redacted.stream().filter(column -> column.mentionedIn(lower)).toList();
+        if (columns.isEmpty()) {
+            return Set.of();
+        }
+
+        List<Integer> placeholders = placeholders(lower);
+        Set<Integer> hidden = new HashSet<>();
+        for (int i = 0; i < placeholders.size(); i++) {
+            String before = lower.substring(Math.max(0, placeholders.get(i) - 64), placeholders.get(i));
+            for (RedactedColumn column : columns) {
+                if (column.comparison.matcher(before).find()) {
+                    hidden.add(i + 1);
+                }
+            }
+        }
+
+        Matcher insert = INSERT.matcher(lower);
+        if (insert.find()) {
+            List<String> names = List.of(insert.group(2).split(","));
+            int valuesAt = insert.end();
+            int first = (int) placeholders.stream().filter(at -> at < valuesAt).count();
+            int width = names.size();
+            for (RedactedColumn column : columns) {
+                if (!column.isTable(insert.group(1))) {
+                    continue;
+                }
+                for (int c = 0; c < width; c++) {
+                    if (unquote(names.get(c)).equals(column.column)) {
+                        // Multi-row inserts repeat the column list once per row
+                        for (int p = first + c; p < placeholders.size(); p += width) {
+                            hidden.add(p + 1);
+                        }
+                    }
+                }
+            }
+        }
+        return hidden;
+    }
+
+    // Positions of ? outside string literals
+    private static List<Integer> placeholders(String sql) {
+        List<Integer> positions = new ArrayList<>();
+        boolean quoted = false;
+        for (int i = 0; i < sql.length(); i++) {
+            char c = sql.charAt(i);
+            if (c == '\'') {
+                quoted = !quoted;
+            } else if (c == '?' && !quoted) {
+                positions.add(i);
+            }
+        }
+        return positions;
+    }
+
+    private static String format(Object value) {
+        if (value == null) {
+            return "null";
+        }
+        if (value instanceof byte[] bytes) {
+            return "<" + bytes.length + " bytes>";
+        }
+        if (value instanceof CharSequence || value instanceof Character) {
+            return "'" + truncate(value.toString(), MAX_PARAMETER_LENGTH) + "'";
+        }
+        return truncate(value.toString(), MAX_PARAMETER_LENGTH);
+    }
+
+    private static String truncate(String text, int max) {
+        return text.length() <= max ? text : text.substring(0, max) + "...";
+    }
+
+    private static String unquote(String identifier) {
+        return identifier.trim().replaceAll("[\\[\\]\"`]", "");
+    }
+
+    private record RedactedColumn(String table, String column, Pattern comparison) {
+
+        static RedactedColumn parse(String qualified) {
+            String[] parts = qualified.trim().toLowerCase(Locale.ROOT).split("\\.");
+            if (parts.length != 2) {
+                throw new IllegalArgumentException("Expected table.column in diagnostics.slow-query.redact: "
+                    + qualified);
+            }
+            Pattern comparison = Pattern.compile(
+                "\\b" + Pattern.quote(parts[1]) + "[\\]\"`]?\\s*(=|<>|!=|like)\\s*$");
+            return new RedactedColumn(parts[0], parts[1], comparison);
+        }
+
+        boolean mentionedIn(String lowerSql) {
+            return lowerSql.contains(table) && lowerSql.contains(column);
+        }
+
+        boolean isTable(String name) {
+            String unquoted = unquote(name);
+            return unquoted.equals(table) || unquoted.endsWith("." + table);
+        }
+    }
+}
@@ -0,0 +1,141 @@
+package com.orchid.orchidbe.configs;
+
+import com.orchid.orchidbe.pojos.RevokedToken;
+import com.orchid.orchidbe.repositories.RevokedTokenRepository;
+import jakarta.annotation.PostConstruct;
+import java.time.Instant;
+import java.time.LocalDateTime;
+import java.time.ZoneId;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.atomic.AtomicLongArray;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Component;
+
+/**
+ * Revoked access tokens, checked on every authenticated request. A Bloom
+ * filter answers "not revoked" for almost every token without a lookup; its
+ * rare false positives fall through to the exact set. The revoked_tokens table
+ * is the durable copy and the whole structure is rebuilt from it at startup.
+ * Other instances only learn about a revocation on their next restart, which
+ * short access token lifetimes keep acceptable.
+ */
+@Slf4j
+@Component
+public class TokenRevocationList {
+
+    private final RevokedTokenRepository revokedTokenRepository;
+    private final int expectedRevocations;
+
+    // jti -> expiry in epoch millis, the source of truth in memory
+    private final Map<String, Long> revoked = new ConcurrentHashMap<>();
+    private volatile BloomFilter filter;
+
+    public TokenRevocationList(RevokedTokenRepository revokedTokenRepository,
+                               @Value("${jwt.revocation.expected:100000}") int expectedRevocations) {
+        this.revokedTokenRepository = revokedTokenRepository;
+        this.expectedRevocations = expectedRevocations;
+        this.filter = new BloomFilter(expectedRevocations);
+    }
+
+    @PostConstruct
+    void load() {
+        var now = LocalDateTime.now();
+        revokedTokenRepository.deleteExpired(now);
+        for (RevokedToken token : revokedTokenRepository.findByExpiresAtAfter(now)) {
+            revoked.put(token.getJti(), toEpochMillis(token.getExpiresAt()));
+        }
+        rebuild();
+        log.info("Loaded {} revoked access tokens", revoked.size());
+    }
+
+    public boolean isRevoked(String jti) {
+        if (jti == null || !filter.mightContain(jti)) {
+            return false;
+        }
+        Long expiresAt = revoked.get(jti);
+        return expiresAt != null && expiresAt > System.currentTimeMillis();
+    }
+
+    /** Revokes an access token until it expires. */
+    public void revoke(String jti, Instant expiresAt) {
+        var expiry = LocalDateTime.ofInstant(expiresAt, ZoneId.systemDefault());
+        revokedTokenRepository.save(new RevokedToken(jti, expiry));
+        // Writers serialize with rebuild so no revocation lands in a filter being replaced
+        synchronized (this) {
+            revoked.put(jti, expiresAt.toEpochMilli());
+            filter.put(jti);
+            if (revoked.size() > filter.capacity) {
+                rebuild();
+            }
+        }
+    }
+
+    // Bloom filters cannot forget, so drop expired entries and size a fresh one
+    private synchronized void rebuild() {
+        long now = System.currentTimeMillis();
+        revoked.values().removeIf(expiresAt -> expiresAt <= now);
+        var rebuilt = new BloomFilter(Math.max(expectedRevocations, revoked.size() * 2));
+        revoked.keySet().forEach(rebuilt::put);
+        filter = rebuilt;
+    }
+
+    private static long toEpochMillis(LocalDateTime time) {
+        return time.atZone(ZoneId.systemDefault()).toInstant().toEpochMilli();
+    }
+
+    /** About 1% false positives at capacity: 9.6 bits and 7 probes per entry. */
+    private static final class BloomFilter {
+
+        private static final int PROBES = 7;
+
+        private final int capacity;
+        private final long bits;
+        private final AtomicLongArray words;
+
+        BloomFilter(int capacity) {
+            this.capacity = capacity;
+            this.bits = Math.max(64, (long) Math.ceil(capacity * 9.6));
+            this.words = new AtomicLongArray((int) ((bits + 63) / 64));
+        }
+
+        void put(String key) {
+            long hash = mix(key.hashCode());
+            int h1 = (int) hash;
+            int h2 = (int) (hash >>> 32);
+            for (int i = 0; i < PROBES; i++) {
+                long bit = Integer.toUnsignedLong(h1 + i * h2) % bits;
+                int word = (int) (bit >>> 6);
+                long mask = 1L << bit;
+                long current;
+                do {
+                    current = words.get(word);
+                } while ((current & mask) == 0 && !words.compareAndSet(word, current, current | mask));
+            }
+        }
+
+        boolean mightContain(String key) {
+            long hash = mix(key.hashCode());
+            int h1 = (int) hash;
+            int h2 = (int) (hash >>> 32);
+            for (int i = 0; i < PROBES; i++) {
+                long bit = Integer.toUnsignedLong(h1 + i * h2) % bits;
+                if ((words.get((int) (bit >>> 6)) & (1L << bit)) == 0) {
+                    return false;
+                }
+            }
+            return true;
+        }
+
+        // Murmur3 finalizer, spreads the 32-bit string hash over both probe seeds
+        private static long mix(long h) {
+            h ^= h >>> 33;
+            h *= 0xff51afd7ed558ccdL;
+            h ^= h >>> 33;
+            h *= 0xc4ceb9fe1a85ec53L;
+            h ^= h >>> 33;
+            return h;
+        }
+    }
+}
@@ -0,0 +1,91 @@
+package com.orchid.orchidbe.configs;
+
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.MeterRegistry;
+import jakarta.annotation.PostConstruct;
+import jakarta.annotation.PreDestroy;
+import java.time.Duration;
+import jdk.jfr.consumer.RecordedEvent;
+import jdk.jfr.consumer.RecordedFrame;
+import jdk.jfr.consumer.RecordedStackTrace;
+import jdk.jfr.consumer.RecordingStream;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.context.annotation.Profile;
+import org.springframework.stereotype.Component;
+
+/**
+ * Reports virtual threads that blocked while pinned to their carrier, which is
+ * what a {@code synchronized} block around I/O does to them (older JDBC drivers,
+ * H2, some Hibernate paths). Each pinned park longer than the threshold is
+ * logged with the frame that held the monitor and counted in
+ * {@code jvm.threads.virtual.pinned}, tagged by that frame.
+ * <p>
+ * For a full stack of every pinning during a local run, start the JVM with
+ * {@code -Djdk.tracePinnedThreads=full} instead.
+ */
+@Slf4j
+@Component
+@Profile("vthreads")
+public class VirtualThreadPinningMonitor {
+
+    private static final String EVENT = "jdk.VirtualThreadPinned";
+
+    private final MeterRegistry meterRegistry;
+    private final Duration threshold;
+    private RecordingStream stream;
+
+    public VirtualThreadPinningMonitor(MeterRegistry meterRegistry,
+                                       @Value("${vthreads.pinning.threshold:20ms}") Duration threshold) {
+        this.meterRegistry = meterRegistry;
+        this.threshold = threshold;
+    }
+
+    @PostConstruct
+    void start() {
+        stream = new RecordingStream();
+        stream.enable(EVENT).withThreshold(threshold).withStackTrace();
+        stream.onEvent(EVENT, this::pinned);
+        stream.startAsync();
+        log.info("Reporting virtual threads pinned for more than {} ms", threshold.toMillis());
+    }
+
+    @PreDestroy
+    void stop() {
+        if (stream != null) {
+            stream.close();
+        }
+    }
+
+    private void pinned(RecordedEvent event) {
+        String frame = culprit(event.getStackTrace());
+        counter(frame).increment();
+        log.warn("Virtual thread {} pinned for {} ms at {}",
+                event.getThread() == null ? "?" : event.getThread().getJavaName(),
+                event.getDuration().toMillis(), frame);
+    }
+
+    private Counter counter(String frame) {
+        return Counter.builder("jvm.threads.virtual.pinned")
+                .description("Virtual threads that parked while pinned to their carrier")
+                .tag("frame", frame)
+                .register(meterRegistry);
+    }
+
+    // First frame outside the JDK, usually the driver or library holding the monitor
+    private static String culprit(RecordedStackTrace stackTrace) {
+        if (stackTrace == null) {
+            return "unknown";
+        }
+        for (RecordedFrame frame : stackTrace.getFrames()) {
+            if (!frame.isJavaFrame()) {
+                continue;
+            }
+            String type = frame.getMethod().getType().getName();
+            if (!type.startsWith("java.") && !type.startsWith("jdk.") && !type.startsWith("sun.")) {
+                return type + "." + frame.getMethod().getName();
+            }
+        }
+        return "jdk";
+    }
+}
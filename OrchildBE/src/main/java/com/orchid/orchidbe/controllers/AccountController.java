@@ -1,8 +1,8 @@
 package com.orchid.orchidbe.controllers;
 
 import com.orchid.orchidbe.apis.MyApiResponse;
+import com.orchid.orchidbe.configs.LoginThrottle;
 import com.orchid.orchidbe.dto.AccountDTO;
-import com.orchid.orchidbe.pojos.Account;
 import com.orchid.orchidbe.services.AccountService;
 import io.swagger.v3.oas.annotations.Operation;
 import io.swagger.v3.oas.annotations.responses.ApiResponse;
@@ -10,9 +10,11 @@ import io.swagger.v3.oas.annotations.responses.ApiResponses;
 import io.swagger.v3.oas.annotations.tags.Tag;
 import java.util.List;
 
+import jakarta.servlet.http.HttpServletRequest;
 import jakarta.validation.Valid;
 import lombok.RequiredArgsConstructor;
 import lombok.extern.slf4j.Slf4j;
+import org.springframework.http.HttpHeaders;
 import org.springframework.http.ResponseEntity;
 import org.springframework.security.access.prepost.PreAuthorize;
 import org.springframework.web.bind.annotation.DeleteMapping;
@@ -21,6 +23,7 @@ import org.springframework.web.bind.annotation.PathVariable;
 import org.springframework.web.bind.annotation.PostMapping;
 import org.springframework.web.bind.annotation.PutMapping;
 import org.springframework.web.bind.annotation.RequestBody;
+import org.springframework.web.bind.annotation.RequestHeader;
 import org.springframework.web.bind.annotation.RequestMapping;
 import org.springframework.web.bind.annotation.RestController;
 
@@ -33,11 +36,13 @@ public class AccountController {
 
     private final AccountService accountService;
 
+    private final LoginThrottle loginThrottle;
+
     @GetMapping("")
     @PreAuthorize("hasRole('Admin')")
     @Operation(summary = "Get all accounts", description = "Returns a list of all accounts")
     @ApiResponse(responseCode = "200", description = "Successfully retrieved all accounts")
-    public ResponseEntity<MyApiResponse<List<Account>>> getAccounts() {
+    public ResponseEntity<MyApiResponse<List<AccountDTO.AccountAdminRes>>> getAccounts() {
         log.info("Fetching all accounts");
         return MyApiResponse.success(accountService.getAll());
     }
@@ -45,7 +50,7 @@ public class AccountController {
     @GetMapping("/{id}")
     @Operation(summary = "Get accounts", description = "Returns a accounts")
     @ApiResponse(responseCode = "200", description = "Successfully retrieved all accounts")
-    public ResponseEntity<MyApiResponse<Account>> getAccountById(@PathVariable int id) {
+    public ResponseEntity<MyApiResponse<AccountDTO.AccountAdminRes>> getAccountById(@PathVariable int id) {
         return MyApiResponse.success(accountService.getById(id));
     }
 
@@ -53,11 +58,14 @@ public class AccountController {
     @Operation(summary = "Create new account", description = "Creates a new account")
     @ApiResponses(value = {
         @ApiResponse(responseCode = "201", description = "Account created successfully"),
-        @ApiResponse(responseCode = "400", description = "Invalid input or email already exists")
+        @ApiResponse(responseCode = "400", description = "Invalid input or email already exists"),
+        @ApiResponse(responseCode = "429", description = "Too many attempts from this address or for this email")
     })
     public ResponseEntity<MyApiResponse<Object>> createAccount(
-        @RequestBody @Valid AccountDTO.AccountReq accountReq
+        @RequestBody @Valid AccountDTO.AccountReq accountReq,
+        HttpServletRequest request
     ) {
+        loginThrottle.acquire("register", request.getRemoteAddr(), accountReq.email());
         accountService.add(accountReq);
         return MyApiResponse.created();
     }
@@ -96,11 +104,15 @@ public class AccountController {
     @ApiResponses(value = {
         @ApiResponse(responseCode = "200", description = "Login successful"),
         @ApiResponse(responseCode = "400", description = "Invalid credentials"),
-        @ApiResponse(responseCode = "500", description = "Internal server error")
+        @ApiResponse(responseCode = "429", description = "Too many attempts from this address or for this email"),
+        @ApiResponse(responseCode = "500", description = "Internal server error"),
+        @ApiResponse(responseCode = "503", description = "Password hashing is saturated, retry after the Retry-After delay")
     })
     public ResponseEntity<MyApiResponse<AccountDTO.LoginRes>> login(
-        @RequestBody AccountDTO.Login accountReq
+        @RequestBody AccountDTO.Login accountReq,
+        HttpServletRequest request
     ) {
+        loginThrottle.acquire("login", request.getRemoteAddr(), accountReq.email());
         var accountRes = accountService.login(accountReq.email(), accountReq.password());
         if (accountRes == null) {
             return MyApiResponse.badRequest("Invalid credentials");
@@ -108,6 +120,30 @@ public class AccountController {
         return MyApiResponse.success(accountRes);
     }
 
+    @PostMapping("/refresh")
+    @Operation(summary = "Refresh", description = "Exchanges a refresh token for a new access token and refresh token. Each refresh token works once")
+    @ApiResponses(value = {
+        @ApiResponse(responseCode = "200", description = "New token pair issued"),
+        @ApiResponse(responseCode = "401", description = "Refresh token invalid, expired or already used")
+    })
+    public ResponseEntity<MyApiResponse<AccountDTO.LoginRes>> refresh(
+        @RequestBody @Valid AccountDTO.RefreshReq refreshReq
+    ) {
+        return MyApiResponse.success(accountService.refresh(refreshReq.refreshToken()));
+    }
+
+    @PostMapping("/logout")
+    @Operation(summary = "Logout", description = "Revokes the refresh token's session and the access token sent with the request")
+    public ResponseEntity<MyApiResponse<Object>> logout(
+        @RequestBody @Valid AccountDTO.RefreshReq refreshReq,
+        @RequestHeader(value = HttpHeaders.AUTHORIZATION, required = false) String authorization
+    ) {
+        String accessToken = authorization != null && authorization.startsWith("Bearer ")
+            ? authorization.substring(7) : null;
+        accountService.logout(refreshReq.refreshToken(), accessToken);
+        return MyApiResponse.noContent();
+    }
+
     @GetMapping("/me")
     @PreAuthorize("hasAnyRole('Admin', 'User')")
     @Operation(summary = "Get current account", description = "Returns the currently authenticated account")
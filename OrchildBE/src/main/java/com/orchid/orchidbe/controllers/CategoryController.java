@@ -3,6 +3,7 @@ package com.orchid.orchidbe.controllers;
 import com.orchid.orchidbe.apis.MyApiResponse;
 import com.orchid.orchidbe.dto.CategoryDTO;
 import com.orchid.orchidbe.pojos.Category;
+import com.orchid.orchidbe.services.CatalogVersion;
 import com.orchid.orchidbe.services.CategoryService;
 import io.swagger.v3.oas.annotations.Operation;
 import io.swagger.v3.oas.annotations.responses.ApiResponse;
@@ -16,6 +17,7 @@ import org.springframework.http.HttpStatus;
 import org.springframework.http.ResponseEntity;
 import org.springframework.security.access.prepost.PreAuthorize;
 import org.springframework.web.bind.annotation.*;
+import org.springframework.web.context.request.WebRequest;
 
 @RestController
 @RequestMapping("${api.prefix}/categories")
@@ -25,12 +27,18 @@ public class CategoryController {
 
     private final CategoryService categoryService;
 
+    private final CatalogVersion catalogVersion;
+
     @GetMapping("")
     @PreAuthorize("hasAnyRole('Admin', 'User')")
     @Operation(summary = "Get all categories", description = "Returns a list of all categories")
     @ApiResponse(responseCode = "200", description = "Successfully retrieved all categories")
-    public ResponseEntity<MyApiResponse<List<Category>>> getCategories() {
-        return MyApiResponse.success(categoryService.getAll());
+    public ResponseEntity<MyApiResponse<List<Category>>> getCategories(WebRequest request) {
+        String etag = catalogVersion.categoriesETag();
+        if (request.checkNotModified(etag)) {
+            return null;
+        }
+        return MyApiResponse.success(categoryService.getAll(), etag);
     }
 
     @GetMapping("/{id}")
@@ -40,8 +48,12 @@ public class CategoryController {
         @ApiResponse(responseCode = "200", description = "Category found"),
         @ApiResponse(responseCode = "404", description = "Category not found")
     })
-    public ResponseEntity<MyApiResponse<Category>> getCategoryById(@PathVariable int id) {
-        return MyApiResponse.success(categoryService.getById(id));
+    public ResponseEntity<MyApiResponse<Category>> getCategoryById(@PathVariable int id, WebRequest request) {
+        String etag = catalogVersion.categoriesETag();
+        if (request.checkNotModified(etag)) {
+            return null;
+        }
+        return MyApiResponse.success(categoryService.getById(id), etag);
     }
     @PreAuthorize("hasRole('Admin')")
     @PostMapping("")
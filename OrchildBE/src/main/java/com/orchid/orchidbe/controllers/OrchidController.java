@@ -1,21 +1,29 @@
 package com.orchid.orchidbe.controllers;
 
+import com.orchid.orchidbe.apis.EncodedResponse;
 import com.orchid.orchidbe.apis.MyApiResponse;
+import com.orchid.orchidbe.apis.OrchidCatalogResponses;
 import com.orchid.orchidbe.dto.OrchidDTO;
+import com.orchid.orchidbe.dto.OrchidDTO.OrchidPage;
 import com.orchid.orchidbe.dto.OrchidDTO.OrchidReq;
 import com.orchid.orchidbe.dto.OrchidDTO.OrchidRes;
+import com.orchid.orchidbe.dto.OrchidDTO.OrchidSort;
+import com.orchid.orchidbe.services.CatalogVersion;
 import com.orchid.orchidbe.services.OrchidService;
 import io.swagger.v3.oas.annotations.Operation;
+import io.swagger.v3.oas.annotations.media.Content;
+import io.swagger.v3.oas.annotations.media.Schema;
 import io.swagger.v3.oas.annotations.responses.ApiResponse;
 import io.swagger.v3.oas.annotations.tags.Tag;
 import jakarta.validation.Valid;
 import lombok.RequiredArgsConstructor;
+import org.springframework.http.HttpHeaders;
 import org.springframework.http.HttpStatus;
+import org.springframework.http.MediaType;
 import org.springframework.http.ResponseEntity;
 import org.springframework.security.access.prepost.PreAuthorize;
 import org.springframework.web.bind.annotation.*;
-
-import java.util.List;
+import org.springframework.web.context.request.WebRequest;
 
 @RestController
 @RequestMapping("${api.prefix}/orchids")
@@ -24,26 +32,57 @@ import java.util.List;
 public class OrchidController {
 
     private final OrchidService orchidService;
+    private final OrchidCatalogResponses catalogResponses;
+    private final CatalogVersion catalogVersion;
 
     @GetMapping("")
     @PreAuthorize("hasAnyRole('Admin')")
-    @Operation(summary = "Get all orchids", description = "Retrieve a list of all orchids")
-    public ResponseEntity<MyApiResponse<List<OrchidRes>>> getAllOrchids() {
-        return MyApiResponse.success(orchidService.getAll());
+    @Operation(summary = "Get all orchids", description = "Retrieve one page of all orchids; pass nextCursor back as cursor for the following page")
+    public ResponseEntity<MyApiResponse<OrchidPage>> getAllOrchids(
+            @RequestParam(required = false) String cursor,
+            @RequestParam(defaultValue = "" + OrchidService.DEFAULT_PAGE_SIZE) int size,
+            @RequestParam(defaultValue = "ID") OrchidSort sort,
+            WebRequest request) {
+        String etag = catalogVersion.orchidsETag(false);
+        if (request.checkNotModified(etag)) {
+            return null;
+        }
+        return MyApiResponse.success(orchidService.getAll(sort, cursor, size), etag);
     }
 
     @GetMapping("/available")
     @PreAuthorize("hasAnyRole('Admin', 'User')")
-    @Operation(summary = "Get all orchids", description = "Retrieve a list of all orchids")
-    public ResponseEntity<MyApiResponse<List<OrchidRes>>> getAllOrchidsAvailable() {
-        return MyApiResponse.success(orchidService.getAllAvailable());
+    @Operation(summary = "Get available orchids", description = "Retrieve one page of available orchids, optionally within one category; pass nextCursor back as cursor for the following page")
+    @ApiResponse(responseCode = "200", content = @Content(
+            mediaType = MediaType.APPLICATION_JSON_VALUE,
+            schema = @Schema(implementation = OrchidPage.class)))
+    public ResponseEntity<byte[]> getAllOrchidsAvailable(
+            @RequestParam(required = false) Integer categoryId,
+            @RequestParam(required = false) String cursor,
+            @RequestParam(defaultValue = "" + OrchidService.DEFAULT_PAGE_SIZE) int size,
+            @RequestParam(defaultValue = "ID") OrchidSort sort,
+            @RequestHeader(value = HttpHeaders.ACCEPT_ENCODING, required = false) String acceptEncoding,
+            WebRequest request) {
+        // Read the version before the body so the tag is never newer than the data
+        long version = catalogVersion.orchids();
+        String etag = catalogVersion.orchidsETag(version, EncodedResponse.acceptsGzip(acceptEncoding));
+        if (request.checkNotModified(etag)) {
+            return null;
+        }
+        // Busiest endpoint: serve the pre-encoded body instead of going through Jackson
+        return catalogResponses.availablePage(version, categoryId, sort, cursor, size)
+                .toResponseEntity(acceptEncoding, etag);
     }
 
     @GetMapping("/{id}")
     @PreAuthorize("hasAnyRole('Admin', 'User')")
     @Operation(summary = "Get orchid by ID", description = "Retrieve a specific orchid by its ID")
-    public ResponseEntity<MyApiResponse<OrchidRes>> getOrchidById(@PathVariable Integer id) {
-        return MyApiResponse.success(orchidService.getById(id));
+    public ResponseEntity<MyApiResponse<OrchidRes>> getOrchidById(@PathVariable Integer id, WebRequest request) {
+        String etag = catalogVersion.orchidsETag(false);
+        if (request.checkNotModified(etag)) {
+            return null;
+        }
+        return MyApiResponse.success(orchidService.getById(id), etag);
     }
 
     @PostMapping("")
@@ -64,6 +103,22 @@ public class OrchidController {
         return MyApiResponse.updated();
     }
 
+    @GetMapping("/{id}/stock")
+    @PreAuthorize("hasRole('Admin')")
+    @Operation(summary = "Get orchid stock", description = "How many of an orchid can still be ordered; null when not limited")
+    public ResponseEntity<MyApiResponse<OrchidDTO.StockRes>> getStock(@PathVariable Integer id) {
+        return MyApiResponse.success(orchidService.getStock(id));
+    }
+
+    @PutMapping("/{id}/stock")
+    @PreAuthorize("hasRole('Admin')")
+    @Operation(summary = "Set orchid stock", description = "Set how many of an orchid can still be ordered; null lifts the limit")
+    public ResponseEntity<MyApiResponse<OrchidDTO.StockRes>> setStock(
+            @PathVariable Integer id,
+            @Valid @RequestBody OrchidDTO.StockReq stockReq) {
+        return MyApiResponse.updated(orchidService.setStock(id, stockReq.quantity()));
+    }
+
     @DeleteMapping("/{id}")
     @PreAuthorize("hasRole('Admin')")
     @Operation(summary = "Delete orchid", description = "Delete an orchid by its ID")
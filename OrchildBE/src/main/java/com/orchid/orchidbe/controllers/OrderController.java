@@ -1,20 +1,24 @@
 package com.orchid.orchidbe.controllers;
 
 import com.orchid.orchidbe.apis.MyApiResponse;
+import com.orchid.orchidbe.configs.IdempotencyStore;
 import com.orchid.orchidbe.dto.OrderDTO;
 import com.orchid.orchidbe.dto.OrderDTO.OrderReq;
 import com.orchid.orchidbe.dto.OrderDTO.OrderRes;
+import com.orchid.orchidbe.pojos.Order;
 import com.orchid.orchidbe.services.OrderService;
 import io.swagger.v3.oas.annotations.Operation;
 import io.swagger.v3.oas.annotations.responses.ApiResponse;
 import io.swagger.v3.oas.annotations.tags.Tag;
 import jakarta.validation.Valid;
 import lombok.RequiredArgsConstructor;
+import org.springframework.format.annotation.DateTimeFormat;
 import org.springframework.http.HttpStatus;
 import org.springframework.http.ResponseEntity;
 import org.springframework.security.access.prepost.PreAuthorize;
 import org.springframework.web.bind.annotation.*;
 
+import java.time.LocalDateTime;
 import java.util.List;
 
 @RestController
@@ -25,11 +29,19 @@ public class OrderController {
 
 
     private final OrderService orderService;
+
+    private final IdempotencyStore idempotencyStore;
+
     @GetMapping("")
     @PreAuthorize("hasRole('Admin')")
-    @Operation(summary = "Get all orders", description = "Retrieve a list of all orders")
-    public ResponseEntity<MyApiResponse<List<OrderRes>>> getAllOrders() {
-        return MyApiResponse.success(orderService.getAll());
+    @Operation(summary = "Get all orders", description = "Retrieve a page of orders, newest first, optionally filtered by status and by an order date range [from, to)")
+    public ResponseEntity<MyApiResponse<OrderDTO.OrderPageRes>> getAllOrders(
+            @RequestParam(required = false) Order.OrderStatus status,
+            @RequestParam(required = false) @DateTimeFormat(iso = DateTimeFormat.ISO.DATE_TIME) LocalDateTime from,
+            @RequestParam(required = false) @DateTimeFormat(iso = DateTimeFormat.ISO.DATE_TIME) LocalDateTime to,
+            @RequestParam(defaultValue = "0") int page,
+            @RequestParam(defaultValue = "" + OrderService.DEFAULT_PAGE_SIZE) int size) {
+        return MyApiResponse.success(orderService.getAll(status, from, to, page, size));
     }
 
     @GetMapping("/{id}")
@@ -41,10 +53,15 @@ public class OrderController {
 
     @PostMapping("")
     @PreAuthorize("hasAnyRole('Admin', 'User')")
-    @Operation(summary = "Create new order", description = "Create a new order record")
+    @Operation(summary = "Create new order", description = "Create a new order record. Retries with the same "
+            + IdempotencyStore.HEADER + " get the first response instead of a second order")
     @ResponseStatus(HttpStatus.CREATED)
-    public ResponseEntity<MyApiResponse<OrderRes>> createOrder(@Valid @RequestBody OrderReq orderReq) {
-        return MyApiResponse.created(orderService.add(orderReq));
+    public ResponseEntity<MyApiResponse<OrderRes>> createOrder(
+            @Valid @RequestBody OrderReq orderReq,
+            @RequestHeader(name = IdempotencyStore.HEADER, required = false) String idempotencyKey) {
+        var result = idempotencyStore.execute(idempotencyKey, "POST /orders", orderReq, OrderRes.class,
+                () -> orderService.add(orderReq));
+        return replayed(MyApiResponse.created(result.value()), result);
     }
 
     @PutMapping("/{id}")
@@ -58,12 +75,14 @@ public class OrderController {
 
     @PostMapping("/success/{id}")
     @PreAuthorize("hasAnyRole('Admin', 'User')")
-    @Operation(summary = "Pay", description = "Pay successfully for an order")
+    @Operation(summary = "Pay", description = "Pay successfully for an order. Retries with the same "
+            + IdempotencyStore.HEADER + " get the first response")
     public ResponseEntity<MyApiResponse<OrderRes>> payOrder(
-            @PathVariable Integer id
-           ) {
-        orderService.pay(id);
-        return MyApiResponse.updated();
+            @PathVariable Integer id,
+            @RequestHeader(name = IdempotencyStore.HEADER, required = false) String idempotencyKey) {
+        var result = idempotencyStore.execute(idempotencyKey, "POST /orders/success", id, OrderRes.class,
+                () -> orderService.pay(id));
+        return replayed(MyApiResponse.updated(result.value()), result);
     }
 
     @DeleteMapping("/{id}")
@@ -81,4 +100,14 @@ public class OrderController {
     public ResponseEntity<MyApiResponse<List<OrderRes>>> getOrdersByUser() {
         return MyApiResponse.success(orderService.getByAccount());
     }
+
+    private static <T> ResponseEntity<MyApiResponse<T>> replayed(ResponseEntity<MyApiResponse<T>> response,
+                                                             IdempotencyStore.Result<T> result) {
+        if (!result.replayed()) {
+            return response;
+        }
+        return ResponseEntity.status(response.getStatusCode())
+                .header(IdempotencyStore.REPLAYED_HEADER, "true")
+                .body(response.getBody());
+    }
 }
\ No newline at end of file
@@ -32,9 +32,40 @@ public class AccountDTO {
     }
     public record LoginRes(
             AccountRes user,
-        String token
+        String token,
+        String refreshToken
     ){
     }
+
+    public record TokenPair(
+            String token,
+            String refreshToken
+    ){
+    }
+
+    public record RefreshReq(
+        @NotBlank String refreshToken
+    ) {
+
+    }
+    public record RoleRes(
+            int id,
+            String name
+    ){}
+
+    // Admin view of an account; username and role keep the fields the entity used to serialize
+    public record AccountAdminRes(
+            int id,
+            String name,
+            String email,
+            String username,
+            RoleRes role
+    ){
+        public AccountAdminRes(int id, String name, String email, Integer roleId, String roleName) {
+            this(id, name, email, email, roleId == null ? null : new RoleRes(roleId, roleName));
+        }
+    }
+
     @Builder
     public record AccountRes(
             int id,
@@ -0,0 +1,60 @@
+package com.orchid.orchidbe.dto;
+
+import com.orchid.orchidbe.dto.OrchidDTO.OrchidRes;
+import com.orchid.orchidbe.dto.OrchidDTO.OrchidSort;
+import java.nio.charset.StandardCharsets;
+import java.util.Base64;
+
+/**
+ * Position of the last row of a keyset page. Clients only ever see the encoded
+ * token, so the format can change without breaking the API.
+ */
+public record OrchidCursor(OrchidSort sort, String lastValue, int lastId) {
+
+    private static final String SEPARATOR = "|";
+    // Prefixes every non-null value, so an empty value segment always means null
+    private static final String VALUE_MARKER = "=";
+
+    public static OrchidCursor after(OrchidSort sort, OrchidRes last) {
+        String value = switch (sort) {
+            case ID -> null;
+            case PRICE -> last.price() == null ? null : String.valueOf(last.price());
+            case NAME -> last.name();
+        };
+        return new OrchidCursor(sort, value, last.id());
+    }
+
+    /** The price of the last row, or {@code null} if it had none (or the sort is not by price). */
+    public Double lastPrice() {
+        return lastValue == null ? null : Double.valueOf(lastValue);
+    }
+
+    public String encode() {
+        String raw = sort.name() + SEPARATOR + lastId + SEPARATOR + (lastValue == null ? "" : VALUE_MARKER + lastValue);
+        return Base64.getUrlEncoder().withoutPadding()
+            .encodeToString(raw.getBytes(StandardCharsets.UTF_8));
+    }
+
+    public static OrchidCursor decode(String token, OrchidSort expectedSort) {
+        try {
+            String raw = new String(Base64.getUrlDecoder().decode(token), StandardCharsets.UTF_8);
+            // The value goes last so names containing the separator survive the round trip
+            String[] parts = raw.split("\\" + SEPARATOR, 3);
+            var sort = OrchidSort.valueOf(parts[0]);
+            if (sort != expectedSort) {
+                throw new IllegalArgumentException("Cursor was issued for sort " + sort);
+            }
+            String value = parts[2];
+            if (!value.isEmpty() && !value.startsWith(VALUE_MARKER)) {
+                throw new IllegalArgumentException("Malformed value");
+            }
+            var cursor = new OrchidCursor(sort, value.isEmpty() ? null : value.substring(1), Integer.parseInt(parts[1]));
+            if (sort == OrchidSort.PRICE) {
+                cursor.lastPrice();
+            }
+            return cursor;
+        } catch (IllegalArgumentException | ArrayIndexOutOfBoundsException e) {
+            throw new IllegalArgumentException("Invalid cursor: " + e.getMessage(), e);
+        }
+    }
+}
@@ -1,10 +1,11 @@
 package com.orchid.orchidbe.dto;
 
-        import com.orchid.orchidbe.pojos.Category;
         import jakarta.validation.constraints.NotBlank;
         import jakarta.validation.constraints.NotNull;
         import jakarta.validation.constraints.Positive;
+        import jakarta.validation.constraints.PositiveOrZero;
         import jakarta.validation.constraints.Size;
+        import java.util.List;
 
         public class OrchidDTO {
 
@@ -29,7 +30,11 @@ package com.orchid.orchidbe.dto;
                 @NotNull(message = "Status cannot be null")
                 boolean isAvailable,
 
-                int categoryId
+                int categoryId,
+
+                // Left out or null: not limited
+                @PositiveOrZero(message = "Stock cannot be negative")
+                Integer stock
             ) {
             }
 
@@ -59,6 +64,19 @@ package com.orchid.orchidbe.dto;
             ) {
             }
 
+            // A null quantity takes the orchid off stock tracking
+            public record StockReq(
+                @PositiveOrZero(message = "Stock cannot be negative")
+                Integer quantity
+            ) {
+            }
+
+            public record StockRes(
+                int orchidId,
+                Integer quantity
+            ) {
+            }
+
             // Add a response record for consistency
             public record OrchidRes(
                 Integer id,
@@ -68,7 +86,35 @@ package com.orchid.orchidbe.dto;
                 String url,
                 Double price,
                 boolean isAvailable,
-                Category categoryId
+                CategoryRes categoryId
+            ) {
+
+                // Flat form for JPQL constructor expressions; no category gives a null categoryId
+                public OrchidRes(Integer id, boolean isNatural, String description, String name, String url,
+                                 Double price, boolean isAvailable, Integer categoryId, String categoryName) {
+                    this(id, isNatural, description, name, url, price, isAvailable,
+                        categoryId == null ? null : new CategoryRes(categoryId, categoryName));
+                }
+            }
+
+            // Serializes like the Category entity it replaces, so clients still read categoryId.id and categoryId.name
+            public record CategoryRes(
+                int id,
+                String name
+            ) {
+            }
+
+            public enum OrchidSort {
+                ID,
+                PRICE,
+                NAME
+            }
+
+            // One keyset page; nextCursor is null on the last page
+            public record OrchidPage(
+                List<OrchidRes> items,
+                String nextCursor,
+                boolean hasMore
             ) {
             }
-        }
\ No newline at end of file
+        }
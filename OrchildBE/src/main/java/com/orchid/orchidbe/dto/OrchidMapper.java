@@ -0,0 +1,24 @@
+package com.orchid.orchidbe.dto;
+
+import com.orchid.orchidbe.pojos.Orchid;
+
+/** Builds orchid responses from entities loaded or written by the service. */
+public final class OrchidMapper {
+
+    private OrchidMapper() {
+    }
+
+    public static OrchidDTO.OrchidRes toOrchidRes(Orchid orchid) {
+        return new OrchidDTO.OrchidRes(
+                orchid.getId(),
+                orchid.isNatural(),
+                orchid.getDescription(),
+                orchid.getName(),
+                orchid.getUrl(),
+                orchid.getPrice(),
+                orchid.isAvailable(),
+                // Null like the flat projection gives for an orchid without a category
+                orchid.getCategory() == null ? null
+                        : new OrchidDTO.CategoryRes(orchid.getCategory().getId(), orchid.getCategory().getName()));
+    }
+}
@@ -40,6 +40,28 @@ public class OrderDTO {
     ) {
     }
 
+    // Columns of an OrderRes without its details, selected without loading the Order entity
+    public record OrderHead(
+        Integer id,
+        Double totalAmount,
+        LocalDateTime orderDate,
+        OrderStatus orderStatus,
+        Integer accountId
+    ) {
+        public OrderRes withDetails(List<OrderDetailRes> details) {
+            return new OrderRes(id, totalAmount, orderDate, orderStatus, accountId, details);
+        }
+    }
+
+    public record OrderPageRes(
+            List<OrderRes> items,
+            int page,
+            int size,
+            long totalItems,
+            int totalPages
+    ) {
+    }
+
     public record OrderDetailRes(
             Integer orchidId,
             String name,
@@ -49,4 +71,19 @@ public class OrderDTO {
             Double price
     ) {
     }
+
+    // An OrderDetailRes tagged with its order, so the details of many orders come back in one select
+    public record OrderLine(
+            Integer orderId,
+            Integer orchidId,
+            String name,
+            String url,
+            String categoryName,
+            Integer quantity,
+            Double price
+    ) {
+        public OrderDetailRes toRes() {
+            return new OrderDetailRes(orchidId, name, url, categoryName, quantity, price);
+        }
+    }
 }
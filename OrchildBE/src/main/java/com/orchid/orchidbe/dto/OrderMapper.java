@@ -0,0 +1,34 @@
+package com.orchid.orchidbe.dto;
+
+import com.orchid.orchidbe.pojos.Order;
+import com.orchid.orchidbe.pojos.OrderDetail;
+import java.util.List;
+
+/** Builds order responses from the entities an order was just written with. */
+public final class OrderMapper {
+
+    private OrderMapper() {
+    }
+
+    public static OrderDTO.OrderRes toOrderRes(Order order, List<OrderDetail> details) {
+        return new OrderDTO.OrderRes(
+            order.getId(),
+            order.getTotalAmount(),
+            order.getOrderDate(),
+            order.getOrderStatus(),
+            order.getAccount().getId(),
+            details.stream().map(OrderMapper::toDetailRes).toList()
+        );
+    }
+
+    public static OrderDTO.OrderDetailRes toDetailRes(OrderDetail detail) {
+        return new OrderDTO.OrderDetailRes(
+            detail.getOrchid().getId(),
+            detail.getOrchid().getName(),
+            detail.getOrchid().getUrl(),
+            detail.getOrchid().getCategory() != null ? detail.getOrchid().getCategory().getName() : "Unknown",
+            detail.getQuantity(),
+            detail.getOrchid().getPrice()
+        );
+    }
+}
@@ -5,6 +5,7 @@ import io.jsonwebtoken.JwtException;
 import lombok.RequiredArgsConstructor;
 import lombok.extern.slf4j.Slf4j;
 import org.springframework.context.support.DefaultMessageSourceResolvable;
+import org.springframework.http.HttpHeaders;
 import org.springframework.http.HttpStatus;
 import org.springframework.http.ResponseEntity;
 import org.springframework.security.access.AccessDeniedException;
@@ -50,6 +51,16 @@ public class GlobalExceptionHandler {
                 "Invalid jwt token",
                 e.getMessage());
     }
+    @ExceptionHandler(ThrottledException.class)
+    public ResponseEntity<MyApiResponse<Object>> handleThrottledException(
+            ThrottledException e) {
+        log.warn("ThrottledException: {}", e.getMessage());
+        // Whole seconds, rounded up so clients never retry too early
+        long retryAfter = Math.max(1, (e.getRetryAfter().toMillis() + 999) / 1000);
+        return ResponseEntity.status(e.getStatus())
+                .header(HttpHeaders.RETRY_AFTER, String.valueOf(retryAfter))
+                .body(MyApiResponse.error(e.getStatus(), e.getStatus().getReasonPhrase(), e.getMessage()).getBody());
+    }
 //    @ExceptionHandler(AccessDeniedException.class)
 //    public ResponseEntity<MyApiResponse<Object>> handleAccessDenied(AccessDeniedException ex) {
 //        log.error("JwtException: ", ex);
@@ -0,0 +1,26 @@
+package com.orchid.orchidbe.exceptions;
+
+import java.time.Duration;
+import lombok.Getter;
+import org.springframework.http.HttpStatus;
+
+/**
+ * A request turned away before doing expensive work, because the caller is
+ * over its rate limit (429), because the server is saturated (503) or because
+ * the same idempotent request is still running (409). Clients are told when
+ * to try again.
+ */
+@Getter
+public class ThrottledException extends RuntimeException {
+
+    private static final long serialVersionUID = 1L;
+
+    private final HttpStatus status;
+    private final Duration retryAfter;
+
+    public ThrottledException(HttpStatus status, String message, Duration retryAfter) {
+        super(message);
+        this.status = status;
+        this.retryAfter = retryAfter;
+    }
+}
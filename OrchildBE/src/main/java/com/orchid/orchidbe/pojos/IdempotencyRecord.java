@@ -0,0 +1,73 @@
+package com.orchid.orchidbe.pojos;
+
+import jakarta.persistence.Column;
+import jakarta.persistence.Entity;
+import jakarta.persistence.Id;
+import jakarta.persistence.Index;
+import jakarta.persistence.Lob;
+import jakarta.persistence.PostLoad;
+import jakarta.persistence.PostPersist;
+import jakarta.persistence.Table;
+import jakarta.persistence.Transient;
+import java.time.LocalDateTime;
+import lombok.Getter;
+import lombok.NoArgsConstructor;
+import lombok.Setter;
+import org.springframework.data.domain.Persistable;
+
+/**
+ * Outcome of a request sent with an {@code Idempotency-Key}, so a retry gets
+ * the same response instead of repeating the write. Keyed by the SHA-256 of
+ * the caller and the key; the request hash tells a retry from a different
+ * request reusing the key. Written in the transaction of the write it records,
+ * always as an insert: the id is assigned, so it says itself whether it is new.
+ */
+@Entity
+@Table(name = "idempotency_keys", indexes = {
+    @Index(name = "ix_idempotency_keys_expires_at", columnList = "expires_at")
+})
+@Getter
+@Setter
+@NoArgsConstructor
+public class IdempotencyRecord implements Persistable<String> {
+
+    @Id
+    @Column(name = "key_hash", nullable = false, length = 64)
+    private String keyHash;
+
+    @Column(name = "request_hash", nullable = false, length = 64)
+    private String requestHash;
+
+    @Lob
+    @Column(name = "response", nullable = false)
+    private String response;
+
+    @Column(name = "expires_at", nullable = false)
+    private LocalDateTime expiresAt;
+
+    @Transient
+    private boolean persisted;
+
+    public IdempotencyRecord(String keyHash, String requestHash, String response, LocalDateTime expiresAt) {
+        this.keyHash = keyHash;
+        this.requestHash = requestHash;
+        this.response = response;
+        this.expiresAt = expiresAt;
+    }
+
+    @Override
+    public String getId() {
+        return keyHash;
+    }
+
+    @Override
+    public boolean isNew() {
+        return !persisted;
+    }
+
+    @PostLoad
+    @PostPersist
+    void markPersisted() {
+        persisted = true;
+    }
+}
@@ -2,19 +2,27 @@ package com.orchid.orchidbe.pojos;
 
 import jakarta.persistence.Column;
 import jakarta.persistence.Entity;
+import jakarta.persistence.FetchType;
 import jakarta.persistence.GeneratedValue;
 import jakarta.persistence.GenerationType;
 import jakarta.persistence.Id;
+import jakarta.persistence.Index;
 import jakarta.persistence.JoinColumn;
 import jakarta.persistence.ManyToOne;
 import jakarta.persistence.Table;
+import org.hibernate.annotations.Cache;
+import org.hibernate.annotations.CacheConcurrencyStrategy;
 import lombok.AllArgsConstructor;
 import lombok.Getter;
 import lombok.NoArgsConstructor;
 import lombok.Setter;
 
 @Entity
-@Table(name = "orchids")
+@Table(name = "orchids", indexes = {
+    // Customer catalog reads filter on availability first, then optionally on category
+    @Index(name = "ix_orchids_available_category", columnList = "is_available, category_id, orchid_id")
+})
+@Cache(usage = CacheConcurrencyStrategy.READ_WRITE, region = "orchids")
 @Getter
 @Setter
 @NoArgsConstructor
@@ -40,9 +48,10 @@ public class Orchid {
 
     private Double price;
 
+    @Column(name = "is_available")
     private boolean isAvailable;
 
-    @ManyToOne
+    @ManyToOne(fetch = FetchType.LAZY)
     @JoinColumn(name = "category_id")
     private Category category;
 
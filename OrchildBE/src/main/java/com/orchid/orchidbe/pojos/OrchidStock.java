@@ -0,0 +1,68 @@
+package com.orchid.orchidbe.pojos;
+
+import jakarta.persistence.Column;
+import jakarta.persistence.Entity;
+import jakarta.persistence.FetchType;
+import jakarta.persistence.Id;
+import jakarta.persistence.JoinColumn;
+import jakarta.persistence.OneToOne;
+import jakarta.persistence.PostLoad;
+import jakarta.persistence.PostPersist;
+import jakarta.persistence.Table;
+import jakarta.persistence.Transient;
+import lombok.Getter;
+import lombok.NoArgsConstructor;
+import lombok.Setter;
+import org.springframework.data.domain.Persistable;
+
+/**
+ * How many of an orchid can still be sold; a null quantity is not limited.
+ * Kept apart from {@link Orchid}, which sits in the second-level cache: every
+ * order changes these rows, and updating the cached table would invalidate
+ * the catalog. Orders take stock with conditional updates, see
+ * {@link com.orchid.orchidbe.repositories.OrchidStockRepositoryCustom}. The
+ * id is the orchid's, so it says itself whether it is new.
+ */
+@Entity
+@Table(name = "orchid_stock")
+@Getter
+@Setter
+@NoArgsConstructor
+public class OrchidStock implements Persistable<Integer> {
+
+    @Id
+    @Column(name = "orchid_id", nullable = false)
+    private Integer orchidId;
+
+    // Only for the foreign key, the id is written through orchidId
+    @OneToOne(fetch = FetchType.LAZY)
+    @JoinColumn(name = "orchid_id", insertable = false, updatable = false)
+    private Orchid orchid;
+
+    @Column(name = "quantity")
+    private Integer quantity;
+
+    @Transient
+    private boolean persisted;
+
+    public OrchidStock(int orchidId, Integer quantity) {
+        this.orchidId = orchidId;
+        this.quantity = quantity;
+    }
+
+    @Override
+    public Integer getId() {
+        return orchidId;
+    }
+
+    @Override
+    public boolean isNew() {
+        return !persisted;
+    }
+
+    @PostLoad
+    @PostPersist
+    void markPersisted() {
+        persisted = true;
+    }
+}
@@ -4,22 +4,31 @@ import jakarta.persistence.Column;
 import jakarta.persistence.Entity;
 import jakarta.persistence.EnumType;
 import jakarta.persistence.Enumerated;
+import jakarta.persistence.FetchType;
 import jakarta.persistence.GeneratedValue;
 import jakarta.persistence.GenerationType;
 import jakarta.persistence.Id;
+import jakarta.persistence.Index;
 import jakarta.persistence.JoinColumn;
 import jakarta.persistence.ManyToOne;
 import jakarta.persistence.Table;
 
 import java.time.LocalDateTime;
 import java.util.Date;
+import java.util.EnumSet;
+import java.util.Set;
 import lombok.AllArgsConstructor;
 import lombok.Getter;
 import lombok.NoArgsConstructor;
 import lombok.Setter;
 
 @Entity
-@Table(name = "orders")
+@Table(name = "orders", indexes = {
+    // The pending order sweeper and the fulfillment worker seek the oldest orders of one status
+    @Index(name = "ix_orders_status_date", columnList = "order_status, order_date"),
+    // The fulfillment worker looks for claims whose lease has run out
+    @Index(name = "ix_orders_status_claimed", columnList = "order_status, claimed_at")
+})
 @Getter
 @Setter
 @NoArgsConstructor
@@ -41,15 +50,49 @@ public class Order {
     @Enumerated(EnumType.ORDINAL)
     private OrderStatus orderStatus;
 
-    @ManyToOne
+    @ManyToOne(fetch = FetchType.LAZY)
     @JoinColumn(name = "account_id")
     private Account account;
 
+    // When the fulfillment worker last claimed the order, only read while it is PROCESSING
+    @Column(name = "claimed_at")
+    private LocalDateTime claimedAt;
+
+    /**
+     * Stored by ordinal, so new states go at the end. An order is PENDING
+     * until its owner pays (PAID) or it is cancelled, by the owner or for
+     * staying unpaid too long. The fulfillment worker then claims paid orders
+     * (PROCESSING) and completes them; a claim that fails or outlives its
+     * lease goes back to PAID. Moves between states are applied as one
+     * conditional UPDATE on the current status, see
+     * {@link com.orchid.orchidbe.repositories.OrderRepository#transition}.
+     */
     public enum OrderStatus {
         PENDING,
         PROCESSING,
         COMPLETED,
         CANCELLED,
+        PAID;
+
+        public boolean canMoveTo(OrderStatus next) {
+            return switch (this) {
+                case PENDING -> next == PAID || next == CANCELLED;
+                case PAID -> next == PROCESSING;
+                case PROCESSING -> next == COMPLETED || next == PAID;
+                case COMPLETED, CANCELLED -> false;
+            };
+        }
+
+        // The states a conditional update to next may match
+        public static Set<OrderStatus> sourcesOf(OrderStatus next) {
+            var sources = EnumSet.noneOf(OrderStatus.class);
+            for (OrderStatus status : values()) {
+                if (status.canMoveTo(next)) {
+                    sources.add(status);
+                }
+            }
+            return sources;
+        }
     }
 
 }
@@ -2,6 +2,7 @@ package com.orchid.orchidbe.pojos;
 
 import jakarta.persistence.Column;
 import jakarta.persistence.Entity;
+import jakarta.persistence.FetchType;
 import jakarta.persistence.GeneratedValue;
 import jakarta.persistence.GenerationType;
 import jakarta.persistence.Id;
@@ -30,12 +31,16 @@ public class OrderDetail {
 
     private Integer quantity;
 
-    @ManyToOne
+    @ManyToOne(fetch = FetchType.LAZY)
     @JoinColumn(name = "orchid_id")
     private Orchid orchid;
 
-    @ManyToOne
+    @ManyToOne(fetch = FetchType.LAZY)
     @JoinColumn(name= "order_id")
     private Order order;
 
+    // Whether this line took its quantity from the orchid's stock, and so gives it back on release
+    @Column(name = "stock_reserved")
+    private Boolean stockReserved;
+
 }
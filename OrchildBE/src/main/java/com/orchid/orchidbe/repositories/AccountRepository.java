@@ -1,9 +1,14 @@
 package com.orchid.orchidbe.repositories;
 
+import com.orchid.orchidbe.dto.AccountDTO;
 import com.orchid.orchidbe.pojos.Account;
+import org.springframework.data.jpa.repository.EntityGraph;
 import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.repository.query.Param;
 import org.springframework.stereotype.Repository;
 
+import java.util.List;
 import java.util.Optional;
 
 @Repository
@@ -11,5 +16,17 @@ public interface AccountRepository extends JpaRepository<Account, Integer> {
 
     boolean existsByEmail(String email);
     boolean existsByEmailAndIdNot(String email, int id);
+
+    // The principal always needs its role for authorities, load it in the same select
+    @EntityGraph(attributePaths = "role")
     Optional<Account> findByEmail(String email);
+
+    String SELECT_ACCOUNT_ADMIN_RES = "select new com.orchid.orchidbe.dto.AccountDTO$AccountAdminRes("
+        + "a.id, a.name, a.email, r.id, r.name) from Account a left join a.role r";
+
+    @Query(SELECT_ACCOUNT_ADMIN_RES + " order by a.id")
+    List<AccountDTO.AccountAdminRes> findAllAdminRes();
+
+    @Query(SELECT_ACCOUNT_ADMIN_RES + " where a.id = :id")
+    Optional<AccountDTO.AccountAdminRes> findAdminResById(@Param("id") int id);
 }
@@ -1,11 +1,20 @@
 package com.orchid.orchidbe.repositories;
 
 import com.orchid.orchidbe.pojos.Category;
+import jakarta.persistence.QueryHint;
+import java.util.List;
+import org.hibernate.jpa.HibernateHints;
 import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.QueryHints;
 import org.springframework.stereotype.Repository;
 
 @Repository
 public interface CategoryRepository extends JpaRepository<Category, Integer> {
     boolean existsByName(String name);
     boolean existsByNameAndIdNot(String name, int id);
+
+    // The category list is read on every catalog screen, the rows come from the second-level cache
+    @Override
+    @QueryHints(@QueryHint(name = HibernateHints.HINT_CACHEABLE, value = "true"))
+    List<Category> findAll();
 }
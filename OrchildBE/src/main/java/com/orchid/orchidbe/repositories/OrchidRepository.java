@@ -1,15 +1,33 @@
 package com.orchid.orchidbe.repositories;
 
+import com.orchid.orchidbe.dto.OrchidDTO;
 import com.orchid.orchidbe.pojos.Orchid;
 import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.repository.query.Param;
 import org.springframework.stereotype.Repository;
 
+import java.util.Collection;
+import java.util.List;
 import java.util.Optional;
 
 @Repository
-public interface OrchidRepository extends JpaRepository<Orchid, Integer> {
+public interface OrchidRepository extends JpaRepository<Orchid, Integer>, OrchidRepositoryCustom {
+
+    // Exactly the columns of an OrchidRes; the category comes from the join, never from a second select
+    String SELECT_ORCHID_RES = "select new com.orchid.orchidbe.dto.OrchidDTO$OrchidRes("
+        + "o.id, o.isNatural, o.description, o.name, o.url, o.price, o.isAvailable, c.id, c.name)"
+        + " from Orchid o left join o.category c";
+
     boolean existsByName(String name);
     boolean existsByNameAndIdNot(String name, int id);
 
-    Optional<Orchid> findByCategory_Id(int categoryId);
+    boolean existsByCategory_Id(int categoryId);
+
+    @Query(SELECT_ORCHID_RES + " where o.id = :id")
+    Optional<OrchidDTO.OrchidRes> findResById(@Param("id") int id);
+
+    // findAllById plus the category in the same select, instead of one extra select per category
+    @Query("select o from Orchid o left join fetch o.category where o.id in :ids")
+    List<Orchid> findAllWithCategoryByIdIn(@Param("ids") Collection<Integer> ids);
 }
@@ -0,0 +1,19 @@
+package com.orchid.orchidbe.repositories;
+
+import com.orchid.orchidbe.dto.OrchidCursor;
+import com.orchid.orchidbe.dto.OrchidDTO.OrchidRes;
+import com.orchid.orchidbe.dto.OrchidDTO.OrchidSort;
+import java.util.List;
+
+public interface OrchidRepositoryCustom {
+
+    /**
+     * Keyset page ordered by {@code sort} with the id as tie breaker. Rows
+     * strictly after {@code after} are returned, so the cost of a page does
+     * not depend on how deep the client has scrolled. With {@code availableOnly}
+     * the predicate runs in the database, so soft-deleted rows are never loaded.
+     * A null {@code categoryId} means every category. Rows are selected straight
+     * into responses, no entity is hydrated.
+     */
+    List<OrchidRes> findKeysetPage(boolean availableOnly, Integer categoryId, OrchidSort sort, OrchidCursor after, int limit);
+}
@@ -0,0 +1,61 @@
+package com.orchid.orchidbe.repositories;
+
+import com.orchid.orchidbe.dto.OrchidCursor;
+import com.orchid.orchidbe.dto.OrchidDTO.OrchidRes;
+import com.orchid.orchidbe.dto.OrchidDTO.OrchidSort;
+import jakarta.persistence.EntityManager;
+import jakarta.persistence.PersistenceContext;
+import java.util.ArrayList;
+import java.util.List;
+
+public class OrchidRepositoryCustomImpl implements OrchidRepositoryCustom {
+
+    @PersistenceContext
+    private EntityManager entityManager;
+
+    @Override
+    public List<OrchidRes> findKeysetPage(boolean availableOnly, Integer categoryId, OrchidSort sort, OrchidCursor after, int limit) {
+        var jpql = new StringBuilder(OrchidRepository.SELECT_ORCHID_RES);
+        List<String> predicates = new ArrayList<>();
+        if (availableOnly) {
+            predicates.add("o.isAvailable = true");
+        }
+        if (categoryId != null) {
+            predicates.add("o.category.id = :categoryId");
+        }
+        String column = switch (sort) {
+            case ID -> null;
+            case PRICE -> "o.price";
+            case NAME -> "o.name";
+        };
+        boolean afterNull = after != null && column != null && after.lastValue() == null;
+        if (after != null) {
+            // Nulls sort last: past a null only nulls with a higher id remain, past a value the nulls still follow
+            predicates.add(column == null ? "o.id > :lastId"
+                : afterNull ? "(" + column + " is null and o.id > :lastId)"
+                : "(" + column + " > :lastValue or (" + column + " = :lastValue and o.id > :lastId) or "
+                    + column + " is null)");
+        }
+        if (!predicates.isEmpty()) {
+            jpql.append(" where ").append(String.join(" and ", predicates));
+        }
+        jpql.append(column == null ? " order by o.id" : " order by " + column + " nulls last, o.id");
+
+        var query = entityManager.createQuery(jpql.toString(), OrchidRes.class)
+            .setMaxResults(limit);
+        if (categoryId != null) {
+            query.setParameter("categoryId", categoryId);
+        }
+        if (after != null) {
+            query.setParameter("lastId", after.lastId());
+        }
+        if (after != null && !afterNull) {
+            switch (sort) {
+                case PRICE -> query.setParameter("lastValue", after.lastPrice());
+                case NAME -> query.setParameter("lastValue", after.lastValue());
+                default -> { }
+            }
+        }
+        return query.getResultList();
+    }
+}
@@ -0,0 +1,28 @@
+package com.orchid.orchidbe.repositories;
+
+import com.orchid.orchidbe.pojos.OrchidStock;
+import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Modifying;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.repository.query.Param;
+import org.springframework.stereotype.Repository;
+
+import java.util.Collection;
+
+@Repository
+public interface OrchidStockRepository extends JpaRepository<OrchidStock, Integer>, OrchidStockRepositoryCustom {
+
+    // Puts back what the lines of the orders took, in one statement however many lines they have.
+    // Lines written without a reservation, such as seeded and generated ones, give nothing back.
+    @Modifying
+    @Query("update OrchidStock s set s.quantity = s.quantity + (select sum(d.quantity) from OrderDetail d"
+            + " where d.order.id in :orderIds and d.stockReserved = true and d.orchid.id = s.orchidId)"
+            + " where s.quantity is not null"
+            + " and s.orchidId in (select d.orchid.id from OrderDetail d"
+            + " where d.order.id in :orderIds and d.stockReserved = true)")
+    int release(@Param("orderIds") Collection<Integer> orderIds);
+
+    @Modifying
+    @Query("update OrchidStock s set s.quantity = :quantity where s.orchidId = :orchidId")
+    int setQuantity(@Param("orchidId") int orchidId, @Param("quantity") Integer quantity);
+}
@@ -0,0 +1,18 @@
+package com.orchid.orchidbe.repositories;
+
+import java.util.Set;
+import java.util.SortedMap;
+
+public interface OrchidStockRepositoryCustom {
+
+    /**
+     * Takes the quantities (by orchid id) off the stock, one
+     * {@code quantity = quantity - ? where quantity >= ?} per orchid, sent as
+     * one JDBC batch. The map is sorted so concurrent orders lock the rows in
+     * the same order and cannot deadlock each other.
+     *
+     * @return the orchids whose update matched no row, either short of stock
+     *         or without a stock row at all
+     */
+    Set<Integer> reserve(SortedMap<Integer, Integer> quantities);
+}
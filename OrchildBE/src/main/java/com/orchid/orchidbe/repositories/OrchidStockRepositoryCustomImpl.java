@@ -0,0 +1,36 @@
+package com.orchid.orchidbe.repositories;
+
+import java.util.HashSet;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.SortedMap;
+import lombok.RequiredArgsConstructor;
+import org.springframework.jdbc.core.JdbcTemplate;
+
+@RequiredArgsConstructor
+public class OrchidStockRepositoryCustomImpl implements OrchidStockRepositoryCustom {
+
+    // Unlimited stock is null and stays null
+    private static final String RESERVE = "update orchid_stock set quantity = quantity - ?"
+        + " where orchid_id = ? and (quantity is null or quantity >= ?)";
+
+    private final JdbcTemplate jdbcTemplate;
+
+    @Override
+    public Set<Integer> reserve(SortedMap<Integer, Integer> quantities) {
+        List<Map.Entry<Integer, Integer>> lines = List.copyOf(quantities.entrySet());
+        int[][] counts = jdbcTemplate.batchUpdate(RESERVE, lines, lines.size(), (ps, line) -> {
+            ps.setInt(1, line.getValue());
+            ps.setInt(2, line.getKey());
+            ps.setInt(3, line.getValue());
+        });
+        Set<Integer> missed = new HashSet<>();
+        for (int i = 0; i < lines.size(); i++) {
+            if (counts[0][i] == 0) {
+                missed.add(lines.get(i).getKey());
+            }
+        }
+        return missed;
+    }
+}
@@ -1,14 +1,28 @@
 package com.orchid.orchidbe.repositories;
 
+import com.orchid.orchidbe.dto.OrderDTO;
 import com.orchid.orchidbe.pojos.OrderDetail;
 import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Modifying;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.repository.query.Param;
 import org.springframework.stereotype.Repository;
 
+import java.util.Collection;
 import java.util.List;
 @Repository
-public interface OrderDetailRepository extends JpaRepository<OrderDetail, Integer> {
+public interface OrderDetailRepository extends JpaRepository<OrderDetail, Integer>, OrderDetailRepositoryCustom {
     boolean existsByOrderIdAndOrchidId(Integer orderId, Integer orchidId);
     boolean existsById(Integer id);
     List<OrderDetail> findByOrderId(Integer orderId);
-    void deleteByOrderId(Integer orderId);
+
+    // Details of many orders at once, only the product columns the response needs
+    @Query("select new com.orchid.orchidbe.dto.OrderDTO$OrderLine("
+            + "d.order.id, oc.id, oc.name, oc.url, coalesce(c.name, 'Unknown'), d.quantity, oc.price)"
+            + " from OrderDetail d join d.orchid oc left join oc.category c where d.order.id in :orderIds")
+    List<OrderDTO.OrderLine> findLinesByOrderIdIn(@Param("orderIds") Collection<Integer> orderIds);
+
+    @Modifying
+    @Query("delete from OrderDetail d where d.order.id = :orderId")
+    void deleteByOrderId(@Param("orderId") Integer orderId);
 }
@@ -0,0 +1,14 @@
+package com.orchid.orchidbe.repositories;
+
+import com.orchid.orchidbe.pojos.OrderDetail;
+import java.util.List;
+
+public interface OrderDetailRepositoryCustom {
+
+    /**
+     * Inserts the details as one JDBC batch. Hibernate cannot batch inserts into
+     * an identity column, so this goes through JDBC; generated ids are not read
+     * back and the entities stay unmanaged.
+     */
+    void insertAll(List<OrderDetail> details);
+}
@@ -0,0 +1,28 @@
+package com.orchid.orchidbe.repositories;
+
+import com.orchid.orchidbe.pojos.OrderDetail;
+import java.sql.Types;
+import java.util.List;
+import lombok.RequiredArgsConstructor;
+import org.springframework.jdbc.core.JdbcTemplate;
+
+@RequiredArgsConstructor
+public class OrderDetailRepositoryCustomImpl implements OrderDetailRepositoryCustom {
+
+    private static final String INSERT_DETAIL =
+        "insert into order_details (price, quantity, orchid_id, order_id, stock_reserved) values (?, ?, ?, ?, ?)";
+
+    private final JdbcTemplate jdbcTemplate;
+
+    @Override
+    public void insertAll(List<OrderDetail> details) {
+        jdbcTemplate.batchUpdate(INSERT_DETAIL, details, details.size(), (ps, detail) -> {
+            // Both fields are boxed; bind nulls as SQL NULL rather than unboxing them
+            ps.setObject(1, detail.getPrice(), Types.DOUBLE);
+            ps.setObject(2, detail.getQuantity(), Types.INTEGER);
+            ps.setInt(3, detail.getOrchid().getId());
+            ps.setInt(4, detail.getOrder().getId());
+            ps.setObject(5, detail.getStockReserved(), Types.BOOLEAN);
+        });
+    }
+}
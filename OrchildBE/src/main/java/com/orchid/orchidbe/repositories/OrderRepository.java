@@ -1,13 +1,96 @@
 package com.orchid.orchidbe.repositories;
 
+import com.orchid.orchidbe.dto.OrderDTO;
 import com.orchid.orchidbe.pojos.Order;
+import org.springframework.data.domain.Page;
+import org.springframework.data.domain.Pageable;
 import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Modifying;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.repository.query.Param;
 import org.springframework.stereotype.Repository;
 
+import java.time.LocalDateTime;
+import java.util.Collection;
 import java.util.List;
+import java.util.Optional;
 
 @Repository
-public interface OrderRepository extends JpaRepository<Order, Integer> {
-    List<Order> findByAccountId(int accountId);
+public interface OrderRepository extends JpaRepository<Order, Integer>, OrderRepositoryCustom {
+    String SELECT_ORDER_HEAD = "select new com.orchid.orchidbe.dto.OrderDTO$OrderHead("
+            + "o.id, o.totalAmount, o.orderDate, o.orderStatus, o.account.id) from Order o";
 
+    boolean existsByAccount_Id(int accountId);
+
+    /**
+     * First phase of the admin listing: only the ids of one page, newest first.
+     * Null filters are ignored; {@code to} is exclusive.
+     */
+    @Query(value = "select o.id from Order o"
+            + " where (:status is null or o.orderStatus = :status)"
+            + " and (:from is null or o.orderDate >= :from)"
+            + " and (:to is null or o.orderDate < :to)"
+            + " order by o.orderDate desc, o.id desc",
+            countQuery = "select count(o) from Order o"
+            + " where (:status is null or o.orderStatus = :status)"
+            + " and (:from is null or o.orderDate >= :from)"
+            + " and (:to is null or o.orderDate < :to)")
+    Page<Integer> findIdPage(@Param("status") Order.OrderStatus status,
+                             @Param("from") LocalDateTime from,
+                             @Param("to") LocalDateTime to,
+                             Pageable pageable);
+
+    // Second phase: the order columns of a page; the account id is the foreign key, no join needed
+    @Query(SELECT_ORDER_HEAD + " where o.id in :ids")
+    List<OrderDTO.OrderHead> findHeadsByIdIn(@Param("ids") Collection<Integer> ids);
+
+    @Query(SELECT_ORDER_HEAD + " where o.account.id = :accountId order by o.orderDate desc")
+    List<OrderDTO.OrderHead> findHeadsByAccountId(@Param("accountId") int accountId);
+
+    @Query(SELECT_ORDER_HEAD + " where o.id = :id")
+    Optional<OrderDTO.OrderHead> findHeadById(@Param("id") int id);
+
+    /**
+     * Compare-and-set on the status: moves the order to {@code to} only while
+     * it is still in one of {@code from}. Of two racing transitions the one
+     * committing second matches no row, so this returns 0 for it.
+     */
+    @Modifying
+    @Query("update Order o set o.orderStatus = :to where o.id = :id and o.orderStatus in :from")
+    int transition(@Param("id") int id,
+                   @Param("from") Collection<Order.OrderStatus> from,
+                   @Param("to") Order.OrderStatus to);
+
+    // Oldest first, a seek on ix_orders_status_date however many orders are done
+    @Query("select o.id from Order o where o.orderStatus = :status and o.orderDate < :before order by o.orderDate, o.id")
+    List<Integer> findIdsInStatusBefore(@Param("status") Order.OrderStatus status,
+                                        @Param("before") LocalDateTime before,
+                                        Pageable pageable);
+
+    // Claims that outlived their lease, a seek on ix_orders_status_claimed; orders never claimed have no claimed_at
+    @Modifying
+    @Query("update Order o set o.orderStatus = :to where o.orderStatus = :from and o.claimedAt < :before")
+    int transitionClaimedBefore(@Param("before") LocalDateTime before,
+                                @Param("from") Order.OrderStatus from,
+                                @Param("to") Order.OrderStatus to);
+
+    // Same seek, without a cutoff
+    @Query("select o.id from Order o where o.orderStatus = :status order by o.orderDate, o.id")
+    List<Integer> findIdsInStatus(@Param("status") Order.OrderStatus status, Pageable pageable);
+
+    // Same as transition, for moves only the owner of the order may make
+    @Modifying
+    @Query("update Order o set o.orderStatus = :to"
+            + " where o.id = :id and o.account.id = :accountId and o.orderStatus in :from")
+    int transitionOwned(@Param("id") int id,
+                        @Param("accountId") int accountId,
+                        @Param("from") Collection<Order.OrderStatus> from,
+                        @Param("to") Order.OrderStatus to);
+
+    // Changes the total only while the order is in the given status; 0 when it has moved on
+    @Modifying
+    @Query("update Order o set o.totalAmount = :total where o.id = :id and o.orderStatus = :status")
+    int updateTotalIn(@Param("id") int id,
+                      @Param("status") Order.OrderStatus status,
+                      @Param("total") double total);
 }
@@ -0,0 +1,37 @@
+package com.orchid.orchidbe.repositories;
+
+import com.orchid.orchidbe.pojos.Order;
+import java.time.LocalDateTime;
+import java.util.Collection;
+import java.util.List;
+import java.util.Set;
+
+public interface OrderRepositoryCustom {
+
+    /**
+     * {@link OrderRepository#transition} for many orders in one JDBC batch.
+     * Unlike a single {@code id in (...)} update it reports which orders
+     * moved, so the caller only does the follow-up work for those; the rest
+     * were moved by someone else in the meantime.
+     *
+     * @return the ids of the orders that were in one of {@code from} and are now {@code to}
+     */
+    List<Integer> transitionAll(Collection<Integer> ids, Set<Order.OrderStatus> from, Order.OrderStatus to);
+
+    /**
+     * {@link #transitionAll} from PAID to PROCESSING that also stamps the
+     * claim, so a claim nobody completes can be found once its lease is over.
+     *
+     * @return the ids of the orders that were PAID and are now claimed
+     */
+    List<Integer> claimAll(Collection<Integer> ids, LocalDateTime claimedAt);
+
+    /**
+     * {@link #transitionAll} out of PROCESSING, only for orders still held by
+     * the claim stamped {@code claimedAt}. An order whose lease ran out and
+     * that was claimed again belongs to the newer claim and is left out.
+     *
+     * @return the ids of the orders that were held by the claim and are now {@code to}
+     */
+    List<Integer> transitionClaimed(Collection<Integer> ids, LocalDateTime claimedAt, Order.OrderStatus to);
+}
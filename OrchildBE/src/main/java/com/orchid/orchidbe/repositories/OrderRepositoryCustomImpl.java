@@ -0,0 +1,76 @@
+package com.orchid.orchidbe.repositories;
+
+import com.orchid.orchidbe.pojos.Order;
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.List;
+import java.util.Set;
+import java.util.stream.Collectors;
+import lombok.RequiredArgsConstructor;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.jdbc.core.ParameterizedPreparedStatementSetter;
+
+@RequiredArgsConstructor
+public class OrderRepositoryCustomImpl implements OrderRepositoryCustom {
+
+    private final JdbcTemplate jdbcTemplate;
+
+    @Override
+    public List<Integer> transitionAll(Collection<Integer> ids, Set<Order.OrderStatus> from, Order.OrderStatus to) {
+        if (from.isEmpty()) {
+            return List.of();
+        }
+        List<Order.OrderStatus> sources = List.copyOf(from);
+        // order_status is mapped with EnumType.ORDINAL
+        String sql = "update orders set order_status = ? where id = ? and order_status in ("
+            + sources.stream().map(s -> "?").collect(Collectors.joining(", ")) + ")";
+        return updateEach(ids, sql, (ps, id) -> {
+            ps.setInt(1, to.ordinal());
+            ps.setInt(2, id);
+            for (int i = 0; i < sources.size(); i++) {
+                ps.setInt(3 + i, sources.get(i).ordinal());
+            }
+        });
+    }
+
+    @Override
+    public List<Integer> claimAll(Collection<Integer> ids, LocalDateTime claimedAt) {
+        String sql = "update orders set order_status = ?, claimed_at = ? where id = ? and order_status = ?";
+        return updateEach(ids, sql, (ps, id) -> {
+            ps.setInt(1, Order.OrderStatus.PROCESSING.ordinal());
+            ps.setObject(2, claimedAt);
+            ps.setInt(3, id);
+            ps.setInt(4, Order.OrderStatus.PAID.ordinal());
+        });
+    }
+
+    @Override
+    public List<Integer> transitionClaimed(Collection<Integer> ids, LocalDateTime claimedAt, Order.OrderStatus to) {
+        String sql = "update orders set order_status = ? where id = ? and order_status = ? and claimed_at = ?";
+        return updateEach(ids, sql, (ps, id) -> {
+            ps.setInt(1, to.ordinal());
+            ps.setInt(2, id);
+            ps.setInt(3, Order.OrderStatus.PROCESSING.ordinal());
+            ps.setObject(4, claimedAt);
+        });
+    }
+
+    // One batch of the update per order, returning the orders it matched
+    private List<Integer> updateEach(Collection<Integer> ids, String sql,
+                                     ParameterizedPreparedStatementSetter<Integer> setter) {
+        if (ids.isEmpty()) {
+            return List.of();
+        }
+        // Sorted, so two batches over the same orders lock them in the same order
+        List<Integer> sorted = ids.stream().sorted().distinct().toList();
+        int[][] counts = jdbcTemplate.batchUpdate(sql, sorted, sorted.size(), setter);
+        List<Integer> moved = new ArrayList<>();
+        for (int i = 0; i < sorted.size(); i++) {
+            if (counts[0][i] > 0) {
+                moved.add(sorted.get(i));
+            }
+        }
+        return moved;
+    }
+}
@@ -0,0 +1,33 @@
+package com.orchid.orchidbe.repositories;
+
+import com.orchid.orchidbe.pojos.RefreshToken;
+import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Modifying;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.repository.query.Param;
+import org.springframework.stereotype.Repository;
+
+import java.util.Optional;
+
+@Repository
+public interface RefreshTokenRepository extends JpaRepository<RefreshToken, Integer> {
+
+    Optional<RefreshToken> findByTokenHash(String tokenHash);
+
+    // Refreshing signs a new access token, which needs the account and its role
+    @Query("select t from RefreshToken t join fetch t.account a join fetch a.role where t.tokenHash = :tokenHash")
+    Optional<RefreshToken> findWithAccountByTokenHash(@Param("tokenHash") String tokenHash);
+
+    // Conditional so two concurrent refreshes with one token cannot both rotate it
+    @Modifying
+    @Query("update RefreshToken t set t.revoked = true where t.id = :id and t.revoked = false")
+    int revokeIfActive(@Param("id") int id);
+
+    @Modifying
+    @Query("update RefreshToken t set t.revoked = true where t.familyId = :familyId")
+    int revokeFamily(@Param("familyId") String familyId);
+
+    @Modifying
+    @Query("delete from RefreshToken t where t.account.id = :accountId")
+    void deleteByAccountId(@Param("accountId") int accountId);
+}
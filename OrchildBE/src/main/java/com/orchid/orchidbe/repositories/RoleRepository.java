@@ -1,7 +1,11 @@
 package com.orchid.orchidbe.repositories;
 
 import com.orchid.orchidbe.pojos.Role;
+import jakarta.persistence.QueryHint;
+import java.util.List;
+import org.hibernate.jpa.HibernateHints;
 import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.QueryHints;
 import org.springframework.stereotype.Repository;
 
 @Repository
@@ -9,5 +13,11 @@ public interface RoleRepository extends JpaRepository<Role, Integer> {
 
     boolean existsByName(String name);
 
+    // Every registration looks up the default role, keep the answer in the query cache
+    @QueryHints(@QueryHint(name = HibernateHints.HINT_CACHEABLE, value = "true"))
     Role findByName(String user);
+
+    @Override
+    @QueryHints(@QueryHint(name = HibernateHints.HINT_CACHEABLE, value = "true"))
+    List<Role> findAll();
 }
@@ -1,14 +1,15 @@
 package com.orchid.orchidbe.services;
 
 import com.orchid.orchidbe.dto.AccountDTO;
-import com.orchid.orchidbe.pojos.Account;
 import java.util.List;
 
 public interface AccountService {
 
-    List<Account> getAll();
+    List<AccountDTO.AccountAdminRes> getAll();
     AccountDTO.LoginRes login(String email, String password);
-    Account getById(int id);
+    AccountDTO.LoginRes refresh(String refreshToken);
+    void logout(String refreshToken, String accessToken);
+    AccountDTO.AccountAdminRes getById(int id);
     void add(AccountDTO.AccountReq account);
     void update(int id, AccountDTO.Update account);
     void delete(int id);
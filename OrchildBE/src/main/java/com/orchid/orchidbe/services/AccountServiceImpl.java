@@ -1,6 +1,7 @@
 package com.orchid.orchidbe.services;
 
-import com.orchid.orchidbe.configs.JwtUtil;
+import com.orchid.orchidbe.configs.JwtPrincipal;
+import com.orchid.orchidbe.configs.PrincipalCache;
 import com.orchid.orchidbe.dto.AccountDTO;
 import com.orchid.orchidbe.pojos.Account;
 import com.orchid.orchidbe.pojos.Role;
@@ -8,17 +9,18 @@ import com.orchid.orchidbe.repositories.AccountRepository;
 import java.util.List;
 
 import com.orchid.orchidbe.repositories.OrderRepository;
+import com.orchid.orchidbe.repositories.RefreshTokenRepository;
 import com.orchid.orchidbe.repositories.RoleRepository;
 import lombok.RequiredArgsConstructor;
 import org.springframework.beans.factory.annotation.Autowired;
 import org.springframework.security.authentication.AuthenticationManager;
 import org.springframework.security.authentication.UsernamePasswordAuthenticationToken;
 import org.springframework.security.core.Authentication;
-import org.springframework.security.core.userdetails.UserDetails;
 import org.springframework.security.core.userdetails.UserDetailsService;
 import org.springframework.security.core.userdetails.UsernameNotFoundException;
 import org.springframework.security.crypto.password.PasswordEncoder;
 import org.springframework.stereotype.Service;
+import org.springframework.transaction.annotation.Transactional;
 
 @Service
 @RequiredArgsConstructor
@@ -39,11 +41,17 @@ public class AccountServiceImpl implements AccountService {
     PasswordEncoder passwordEncoder;
 
     @Autowired
-    JwtUtil jwtUtil;
+    PrincipalCache principalCache;
+
+    @Autowired
+    TokenService tokenService;
+
+    @Autowired
+    RefreshTokenRepository refreshTokenRepository;
 
     @Override
-    public List<Account> getAll() {
-        return accountRepository.findAll();
+    public List<AccountDTO.AccountAdminRes> getAll() {
+        return accountRepository.findAllAdminRes();
     }
 
     @Override
@@ -52,12 +60,23 @@ public class AccountServiceImpl implements AccountService {
                 new UsernamePasswordAuthenticationToken(email, password)
         );
         Account account = (Account) authentication.getPrincipal();
-        return getAccountRes(account);
+        return getAccountRes(account, tokenService.issue(account));
     }
 
     @Override
-    public Account getById(int id) {
-        return accountRepository.findById(id)
+    public AccountDTO.LoginRes refresh(String refreshToken) {
+        var rotation = tokenService.refresh(refreshToken);
+        return getAccountRes(rotation.account(), rotation.tokens());
+    }
+
+    @Override
+    public void logout(String refreshToken, String accessToken) {
+        tokenService.revoke(refreshToken, accessToken);
+    }
+
+    @Override
+    public AccountDTO.AccountAdminRes getById(int id) {
+        return accountRepository.findAdminResById(id)
             .orElseThrow(() -> new IllegalArgumentException("Account not found"));
     }
 
@@ -89,23 +108,35 @@ public class AccountServiceImpl implements AccountService {
         existingAccount.setName(account.name());
 
         accountRepository.save(existingAccount);
+        principalCache.evict(existingAccount.getEmail());
     }
 
     @Override
+    @Transactional
     public void delete(int id) {
         var existingAccount = accountRepository.findById(id)
             .orElseThrow(() -> new IllegalArgumentException("Account not found"));
-        var orders = orderRepository.findByAccountId(id);
-        if (!orders.isEmpty()) {
+        if (orderRepository.existsByAccount_Id(id)) {
             throw new IllegalArgumentException("Cannot delete account with existing orders");
         }
+        refreshTokenRepository.deleteByAccountId(id);
         accountRepository.delete(existingAccount);
+        principalCache.evict(existingAccount.getEmail());
     }
 
     @Override
     public AccountDTO.AccountRes getCurrentAccount() {
-    UserDetails userDetails = (UserDetails) org.springframework.security.core.context.SecurityContextHolder.getContext().getAuthentication().getPrincipal();
-        if (!(userDetails instanceof Account account)) {
+    Object principal = org.springframework.security.core.context.SecurityContextHolder.getContext().getAuthentication().getPrincipal();
+        if (principal instanceof JwtPrincipal jwtPrincipal) {
+            var account = getById(jwtPrincipal.accountId());
+            return AccountDTO.AccountRes.builder()
+                    .id(account.id())
+                    .name(account.name())
+                    .email(account.email())
+                    .roleName(account.role() != null ? account.role().name() : null)
+                    .build();
+        }
+        if (!(principal instanceof Account account)) {
             throw new UsernameNotFoundException("User not found");
         }
         return AccountDTO.AccountRes.builder()
@@ -116,7 +147,7 @@ public class AccountServiceImpl implements AccountService {
                 .build();
     }
 
-    private AccountDTO.LoginRes getAccountRes(Account account) {
+    private AccountDTO.LoginRes getAccountRes(Account account, AccountDTO.TokenPair tokens) {
         var user = AccountDTO.AccountRes.builder()
                 .id(account.getId())
                 .name(account.getName())
@@ -125,7 +156,8 @@ public class AccountServiceImpl implements AccountService {
                 .build();
         return new AccountDTO.LoginRes(
                 user,
-            jwtUtil.generateToken(account)
+            tokens.token(),
+            tokens.refreshToken()
         );
     }
 
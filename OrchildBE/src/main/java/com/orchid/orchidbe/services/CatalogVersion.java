@@ -0,0 +1,94 @@
+package com.orchid.orchidbe.services;
+
+import com.orchid.orchidbe.configs.CacheConfig;
+import java.util.concurrent.atomic.AtomicLong;
+import lombok.RequiredArgsConstructor;
+import org.springframework.cache.CacheManager;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.support.TransactionSynchronization;
+import org.springframework.transaction.support.TransactionSynchronizationManager;
+
+/**
+ * Monotonic versions of the orchid and category catalogs, used as strong ETags.
+ * The orchid caches are keyed by the version read before the data, so a read
+ * that raced a change can only repopulate an entry under the old version; the
+ * change clears the caches as well to release their memory. Inside a
+ * transaction both steps wait for the commit.
+ */
+@Component
+@RequiredArgsConstructor
+public class CatalogVersion {
+
+    private final CacheManager cacheManager;
+
+    // Versions restart at zero, the epoch keeps tags from before a restart from matching
+    private final long epoch = System.currentTimeMillis();
+    private final AtomicLong orchids = new AtomicLong();
+    private final AtomicLong categories = new AtomicLong();
+
+    public long orchids() {
+        return orchids.get();
+    }
+
+    public String orchidsETag(boolean gzip) {
+        return orchidsETag(orchids.get(), gzip);
+    }
+
+    /** The tag for a body built from {@code version}, so the two cannot drift apart. */
+    public String orchidsETag(long version, boolean gzip) {
+        return etag("orchids", version, gzip ? "-gzip" : "");
+    }
+
+    public String categoriesETag() {
+        return etag("categories", categories.get(), "");
+    }
+
+    public void orchidAdded() {
+        afterCommit(this::orchidsChanged);
+    }
+
+    public void orchidChanged() {
+        afterCommit(this::orchidsChanged);
+    }
+
+    public void categoryAddedOrRemoved() {
+        afterCommit(categories::incrementAndGet);
+    }
+
+    /** Orchid responses embed their category, so a rename changes both catalogs. */
+    public void categoryRenamed() {
+        afterCommit(() -> {
+            orchidsChanged();
+            categories.incrementAndGet();
+        });
+    }
+
+    private void orchidsChanged() {
+        orchids.incrementAndGet();
+        clear(CacheConfig.ORCHID_BY_ID);
+        clear(CacheConfig.AVAILABLE_ORCHID_PAGES);
+        clear(CacheConfig.AVAILABLE_ORCHID_RESPONSES);
+    }
+
+    // The suffix goes inside the quotes, or If-None-Match would never match the tag
+    private String etag(String catalog, long version, String suffix) {
+        return "\"" + catalog + "-" + epoch + "-" + version + suffix + "\"";
+    }
+
+    private void clear(String cacheName) {
+        cacheManager.getCache(cacheName).clear();
+    }
+
+    private static void afterCommit(Runnable action) {
+        if (!TransactionSynchronizationManager.isSynchronizationActive()) {
+            action.run();
+            return;
+        }
+        TransactionSynchronizationManager.registerSynchronization(new TransactionSynchronization() {
+            @Override
+            public void afterCommit() {
+                action.run();
+            }
+        });
+    }
+}
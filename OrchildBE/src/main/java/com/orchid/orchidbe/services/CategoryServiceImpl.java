@@ -17,6 +17,8 @@ public class CategoryServiceImpl implements CategoryService {
 
     private final OrchidRepository orchidRepository;
 
+    private final CatalogVersion catalogVersion;
+
     @Override
     public List<Category> getAll() {
         return categoryRepository.findAll();
@@ -39,6 +41,7 @@ public class CategoryServiceImpl implements CategoryService {
         newCategory.setName(category.name());
 
         categoryRepository.save(newCategory);
+        catalogVersion.categoryAddedOrRemoved();
     }
 
     @Override
@@ -53,16 +56,17 @@ public class CategoryServiceImpl implements CategoryService {
         existingCategory.setName(category.name());
 
         categoryRepository.save(existingCategory);
+        catalogVersion.categoryRenamed();
 
     }
 
     @Override
     public void delete(int id) {
-        var orchids = orchidRepository.findByCategory_Id(id);
-        if(orchids.isPresent()) {
+        if (orchidRepository.existsByCategory_Id(id)) {
             throw new IllegalArgumentException("Cannot delete category with existing orchids");
         }
         var existingCategory = getById(id);
         categoryRepository.delete(existingCategory);
+        catalogVersion.categoryAddedOrRemoved();
     }
 }
@@ -0,0 +1,179 @@
+package com.orchid.orchidbe.services;
+
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.Gauge;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.Timer;
+import jakarta.annotation.PreDestroy;
+import java.time.Duration;
+import java.time.LocalDateTime;
+import java.util.concurrent.ArrayBlockingQueue;
+import java.util.concurrent.RejectedExecutionException;
+import java.util.concurrent.Semaphore;
+import java.util.concurrent.ThreadPoolExecutor;
+import java.util.concurrent.TimeUnit;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Component;
+
+/**
+ * Moves paid orders through fulfillment off the request path. The dispatcher
+ * claims batches of the oldest PAID orders (PAID to PROCESSING, one batch of
+ * conditional updates, so two instances never claim the same order) and hands
+ * them to a fixed pool of {@code orders.fulfillment.workers}, which complete
+ * them. Backpressure comes from a slot per worker and per queued batch: no
+ * batch is claimed without a free slot, so while the pool is saturated the
+ * backlog stays PAID in the orders table instead of piling up in memory.
+ * A worker that finishes a full batch dispatches again right away, so a
+ * backlog drains at the speed of the pool rather than of the schedule.
+ * A batch that fails is handed back to PAID. Claims are stamped, and each
+ * dispatch first hands back orders claimed longer than
+ * {@code orders.fulfillment.lease} ago, so a batch lost to a crash, or to a
+ * shutdown that did not wait for it, is fulfilled by the next run. The
+ * claim time fences the batch: a worker still running when its lease ran
+ * out cannot complete or release orders that were claimed again since.
+ * Batches are timed in {@code orders.fulfillment.batch}, completed orders
+ * counted in {@code orders.fulfillment.completed}, expired claims in
+ * {@code orders.fulfillment.requeued}.
+ */
+@Slf4j
+@Component
+@ConditionalOnProperty(name = "orders.fulfillment.enabled", matchIfMissing = true)
+public class FulfillmentWorker {
+
+    private final OrderService orderService;
+    private final int batchSize;
+    private final int capacity;
+    private final Duration lease;
+    private final ThreadPoolExecutor workers;
+    private final Semaphore slots;
+    private final Timer batches;
+    private final Counter completed;
+    private final Counter requeued;
+
+    public FulfillmentWorker(OrderService orderService,
+                             MeterRegistry meterRegistry,
+                             @Value("${orders.fulfillment.workers:4}") int workers,
+                             @Value("${orders.fulfillment.queue-size:4}") int queueSize,
+                             @Value("${orders.fulfillment.batch-size:100}") int batchSize,
+                             @Value("${orders.fulfillment.lease:5m}") Duration lease) {
+        this.orderService = orderService;
+        this.lease = lease;
+        this.batchSize = Math.max(1, batchSize);
+        int threads = Math.max(1, workers);
+        this.capacity = threads + Math.max(0, queueSize);
+        this.slots = new Semaphore(capacity);
+        // The queue holds every slot, so a batch that got one is never rejected
+        this.workers = new ThreadPoolExecutor(threads, threads, 0, TimeUnit.MILLISECONDS,
+            new ArrayBlockingQueue<>(capacity), Thread.ofPlatform().name("fulfillment-", 1).daemon().factory());
+        this.batches = Timer.builder("orders.fulfillment.batch")
+            .description("Batches of claimed orders completed by the fulfillment workers")
+            .register(meterRegistry);
+        this.completed = Counter.builder("orders.fulfillment.completed")
+            .description("Orders moved from PROCESSING to COMPLETED by the fulfillment workers")
+            .register(meterRegistry);
+        this.requeued = Counter.builder("orders.fulfillment.requeued")
+            .description("Claimed orders handed back to PAID after their lease ran out")
+            .register(meterRegistry);
+        Gauge.builder("orders.fulfillment.in-flight", slots, s -> capacity - s.availablePermits())
+            .description("Claimed batches running or waiting for a fulfillment worker")
+            .register(meterRegistry);
+    }
+
+    @Scheduled(initialDelayString = "${orders.fulfillment.interval:5s}",
+               fixedDelayString = "${orders.fulfillment.interval:5s}")
+    public void scheduledDispatch() {
+        try {
+            dispatch();
+        } catch (RuntimeException e) {
+            // Nothing was claimed by the failed call, the next run tries again
+            log.warn("Dispatching paid orders failed", e);
+        }
+    }
+
+    /**
+     * Hands expired claims back to PAID, then claims batches of paid orders
+     * for as long as a slot is free and full batches come back.
+     *
+     * @return how many orders were handed to the workers
+     */
+    public int dispatch() {
+        int expired = orderService.requeueClaimedBefore(LocalDateTime.now().minus(lease));
+        if (expired > 0) {
+            log.warn("Handed {} orders back to PAID, their claim outlived the {} lease", expired, lease);
+            requeued.increment(expired);
+        }
+        int dispatched = 0;
+        while (!workers.isShutdown() && slots.tryAcquire()) {
+            OrderService.Claim claimed;
+            try {
+                claimed = orderService.claimPaid(batchSize);
+            } catch (RuntimeException e) {
+                slots.release();
+                throw e;
+            }
+            if (claimed.ids().isEmpty()) {
+                slots.release();
+                break;
+            }
+            try {
+                workers.execute(() -> fulfil(claimed));
+            } catch (RejectedExecutionException e) {
+                // Shut down between the claim and the hand-off
+                slots.release();
+                release(claimed);
+                break;
+            }
+            dispatched += claimed.ids().size();
+            if (claimed.ids().size() < batchSize) {
+                break;
+            }
+        }
+        return dispatched;
+    }
+
+    private void fulfil(OrderService.Claim claimed) {
+        var sample = Timer.start();
+        try {
+            completed.increment(orderService.completeProcessing(claimed));
+        } catch (RuntimeException e) {
+            log.error("Completing orders {} failed, handing them back", claimed.ids(), e);
+            release(claimed);
+        } finally {
+            sample.stop(batches);
+            slots.release();
+        }
+        if (claimed.ids().size() == batchSize) {
+            scheduledDispatch();
+        }
+    }
+
+    private void release(OrderService.Claim claimed) {
+        try {
+            orderService.releaseClaims(claimed);
+        } catch (RuntimeException e) {
+            log.error("Handing orders {} back failed, they go back to PAID once their lease runs out",
+                claimed.ids(), e);
+        }
+    }
+
+    // Waits until no batch is running or queued, or the timeout passes
+    boolean awaitIdle(Duration timeout) throws InterruptedException {
+        if (!slots.tryAcquire(capacity, timeout.toMillis(), TimeUnit.MILLISECONDS)) {
+            return false;
+        }
+        slots.release(capacity);
+        return true;
+    }
+
+    // Lets claimed batches finish, they would otherwise wait for their lease to run out
+    @PreDestroy
+    void stop() throws InterruptedException {
+        workers.shutdown();
+        if (!workers.awaitTermination(30, TimeUnit.SECONDS)) {
+            log.warn("Fulfillment workers still busy at shutdown, their orders go back to PAID once the lease runs out");
+        }
+    }
+}
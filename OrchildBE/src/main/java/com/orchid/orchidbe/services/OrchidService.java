@@ -2,15 +2,19 @@ package com.orchid.orchidbe.services;
 
 import com.orchid.orchidbe.dto.OrchidDTO;
 import com.orchid.orchidbe.pojos.Orchid;
-import java.util.List;
 
 public interface OrchidService {
 
-    List<OrchidDTO.OrchidRes> getAll();
-    List<OrchidDTO.OrchidRes> getAllAvailable();
+    int DEFAULT_PAGE_SIZE = 20;
+    int MAX_PAGE_SIZE = 100;
+
+    OrchidDTO.OrchidPage getAll(OrchidDTO.OrchidSort sort, String cursor, int size);
+    OrchidDTO.OrchidPage getAllAvailable(Integer categoryId, OrchidDTO.OrchidSort sort, String cursor, int size);
     OrchidDTO.OrchidRes getById(int id);
     OrchidDTO.OrchidRes add(OrchidDTO.OrchidReq orchid);
     OrchidDTO.OrchidRes update(OrchidDTO.OrchidUpReq orchid, int id);
     void delete(Integer orchid);
+    OrchidDTO.StockRes getStock(int id);
+    OrchidDTO.StockRes setStock(int id, Integer quantity);
 
 }
@@ -1,11 +1,18 @@
 package com.orchid.orchidbe.services;
 
+import com.orchid.orchidbe.configs.CacheConfig;
+import com.orchid.orchidbe.dto.OrchidCursor;
 import com.orchid.orchidbe.dto.OrchidDTO;
+import com.orchid.orchidbe.dto.OrchidMapper;
 import com.orchid.orchidbe.pojos.Orchid;
+import com.orchid.orchidbe.pojos.OrchidStock;
 import com.orchid.orchidbe.repositories.CategoryRepository;
 import com.orchid.orchidbe.repositories.OrchidRepository;
+import com.orchid.orchidbe.repositories.OrchidStockRepository;
 import java.util.List;
+import jakarta.transaction.Transactional;
 import lombok.RequiredArgsConstructor;
+import org.springframework.cache.annotation.Cacheable;
 import org.springframework.stereotype.Service;
 
 @Service
@@ -14,30 +21,41 @@ public class OrchidServiceImpl implements OrchidService  {
 
     private final OrchidRepository orchidRepository;
     private final CategoryRepository categoryRepository;
+    private final OrchidStockRepository orchidStockRepository;
+    private final CatalogVersion catalogVersion;
 
     @Override
-    public List<OrchidDTO.OrchidRes> getAll() {
-        return orchidRepository.findAll().stream()
-                .map(this::mapToOrchidRes)
-                .toList();
+    public OrchidDTO.OrchidPage getAll(OrchidDTO.OrchidSort sort, String cursor, int size) {
+        return getPage(false, null, sort, cursor, size);
     }
 
     @Override
-    public List<OrchidDTO.OrchidRes> getAllAvailable() {
-        return orchidRepository.findAll().stream()
-                .filter(Orchid::isAvailable)
-                .map(this::mapToOrchidRes)
-                .toList();
+    @Cacheable(cacheNames = CacheConfig.AVAILABLE_ORCHID_PAGES,
+            key = "{@catalogVersion.orchids(), #categoryId, #sort, #cursor, #size}")
+    public OrchidDTO.OrchidPage getAllAvailable(Integer categoryId, OrchidDTO.OrchidSort sort, String cursor, int size) {
+        return getPage(true, categoryId, sort, cursor, size);
     }
 
+    private OrchidDTO.OrchidPage getPage(boolean availableOnly, Integer categoryId, OrchidDTO.OrchidSort sort, String cursor, int size) {
+        int pageSize = Math.min(Math.max(size, 1), MAX_PAGE_SIZE);
+        var after = cursor == null || cursor.isBlank() ? null : OrchidCursor.decode(cursor, sort);
+        // Fetch one extra row to know whether another page exists without a count query
+        var rows = orchidRepository.findKeysetPage(availableOnly, categoryId, sort, after, pageSize + 1);
+        boolean hasMore = rows.size() > pageSize;
+        var page = hasMore ? List.copyOf(rows.subList(0, pageSize)) : rows;
+        String nextCursor = hasMore ? OrchidCursor.after(sort, page.get(page.size() - 1)).encode() : null;
+        return new OrchidDTO.OrchidPage(page, nextCursor, hasMore);
+    }
 
 
     @Override
+    @Cacheable(cacheNames = CacheConfig.ORCHID_BY_ID, key = "{@catalogVersion.orchids(), #id}")
     public OrchidDTO.OrchidRes getById(int id) {
-        return orchidRepository.findById(id).map(this::mapToOrchidRes).orElseThrow(() -> new IllegalArgumentException("Orchid not found"));
+        return orchidRepository.findResById(id).orElseThrow(() -> new IllegalArgumentException("Orchid not found"));
     }
 
     @Override
+    @Transactional
     public OrchidDTO.OrchidRes add(OrchidDTO.OrchidReq orchid) {
         if(orchidRepository.existsByName(orchid.name())) {
             throw new IllegalArgumentException("Orchid with name " + orchid.name() + " already exists");
@@ -53,7 +71,9 @@ public class OrchidServiceImpl implements OrchidService  {
         newOrchid.setAvailable(orchid.isAvailable());
         newOrchid.setCategory(category);
         orchidRepository.save(newOrchid);
-        return mapToOrchidRes(newOrchid);
+        orchidStockRepository.save(new OrchidStock(newOrchid.getId(), orchid.stock()));
+        catalogVersion.orchidAdded();
+        return OrchidMapper.toOrchidRes(newOrchid);
     }
 
     @Override
@@ -76,7 +96,8 @@ public class OrchidServiceImpl implements OrchidService  {
         existingOrchid.setAvailable(orchid.isAvailable());
         existingOrchid.setCategory(category);
         orchidRepository.save(existingOrchid);
-        return mapToOrchidRes(existingOrchid);
+        catalogVersion.orchidChanged();
+        return OrchidMapper.toOrchidRes(existingOrchid);
     }
 
     @Override
@@ -85,18 +106,30 @@ public class OrchidServiceImpl implements OrchidService  {
                 .orElseThrow(() -> new IllegalArgumentException("Orchid not found"));
         existingOrchid.setAvailable(false);
         orchidRepository.save(existingOrchid);
+        catalogVersion.orchidChanged();
+    }
+
+    @Override
+    public OrchidDTO.StockRes getStock(int id) {
+        var orchid = orchidRepository.findById(id)
+                .orElseThrow(() -> new IllegalArgumentException("Orchid not found"));
+        var quantity = orchidStockRepository.findById(id).map(OrchidStock::getQuantity).orElse(null);
+        return new OrchidDTO.StockRes(orchid.getId(), quantity);
     }
 
-    private OrchidDTO.OrchidRes mapToOrchidRes(Orchid orchid) {
-        return new OrchidDTO.OrchidRes(
-                orchid.getId(),
-                orchid.isNatural(),
-                orchid.getDescription(),
-                orchid.getName(),
-                orchid.getUrl(),
-                orchid.getPrice(),
-                orchid.isAvailable(),
-                orchid.getCategory());
+    /**
+     * Sets the stock outright, for restocking and corrections. Orders that
+     * committed before this are not counted against the new quantity.
+     */
+    @Override
+    @Transactional
+    public OrchidDTO.StockRes setStock(int id, Integer quantity) {
+        var orchid = orchidRepository.findById(id)
+                .orElseThrow(() -> new IllegalArgumentException("Orchid not found"));
+        if (orchidStockRepository.setQuantity(id, quantity) == 0) {
+            orchidStockRepository.save(new OrchidStock(id, quantity));
+        }
+        return new OrchidDTO.StockRes(id, quantity);
     }
 
 
@@ -3,15 +3,69 @@ package com.orchid.orchidbe.services;
 import com.orchid.orchidbe.dto.OrderDTO;
 import com.orchid.orchidbe.pojos.Account;
 import com.orchid.orchidbe.pojos.Order;
+import java.time.LocalDateTime;
 import java.util.List;
 
 public interface OrderService {
 
-    List<OrderDTO.OrderRes> getAll();
+    /**
+     * Orders claimed together. The claim time is also the fencing token:
+     * once the lease has run out and the orders have been claimed again, a
+     * late worker holding the old claim can neither complete nor release them.
+     */
+    record Claim(List<Integer> ids, LocalDateTime claimedAt) {
+    }
+
+    int DEFAULT_PAGE_SIZE = 20;
+    int MAX_PAGE_SIZE = 100;
+
+    OrderDTO.OrderPageRes getAll(Order.OrderStatus status, LocalDateTime from, LocalDateTime to, int page, int size);
     OrderDTO.OrderRes getById(int id);
     List<OrderDTO.OrderRes> getByAccount();
     OrderDTO.OrderRes add(OrderDTO.OrderReq order);
     OrderDTO.OrderRes update(OrderDTO.OrderUpReq order, int id);
     void delete(int id);
     OrderDTO.OrderRes pay( int id);
+
+    /**
+     * Cancels up to {@code limit} of the oldest orders left PENDING since
+     * before {@code before} and releases their stock, in one transaction.
+     * Orders paid or cancelled in the meantime are skipped.
+     *
+     * @return how many orders were cancelled
+     */
+    int cancelStale(LocalDateTime before, int limit);
+
+    /**
+     * Claims up to {@code limit} of the oldest PAID orders for fulfillment by
+     * moving them to PROCESSING and stamping the claim, in one batch. Orders
+     * claimed by another worker in the meantime are left out.
+     *
+     * @return the orders this call claimed
+     */
+    Claim claimPaid(int limit);
+
+    /**
+     * Completes claimed orders in one batch.
+     *
+     * @return how many of them were still held by this claim and are now COMPLETED
+     */
+    int completeProcessing(Claim claim);
+
+    /**
+     * Hands claimed orders that could not be completed back to PAID, in one
+     * batch, for the next claim to pick up.
+     *
+     * @return how many of them were still held by this claim
+     */
+    int releaseClaims(Claim claim);
+
+    /**
+     * Hands orders claimed before {@code claimedBefore} and still PROCESSING
+     * back to PAID: their worker failed to complete or release them, or the
+     * process holding them is gone.
+     *
+     * @return how many orders were handed back
+     */
+    int requeueClaimedBefore(LocalDateTime claimedBefore);
 }
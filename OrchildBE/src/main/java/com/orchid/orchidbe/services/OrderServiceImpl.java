@@ -1,23 +1,38 @@
 package com.orchid.orchidbe.services;
 
+import com.orchid.orchidbe.configs.JwtPrincipal;
 import com.orchid.orchidbe.configs.JwtUtil;
 import com.orchid.orchidbe.dto.OrderDTO;
+import com.orchid.orchidbe.dto.OrderMapper;
 import com.orchid.orchidbe.pojos.Account;
+import com.orchid.orchidbe.pojos.Orchid;
+import com.orchid.orchidbe.pojos.OrchidStock;
 import com.orchid.orchidbe.pojos.Order;
 import com.orchid.orchidbe.pojos.OrderDetail;
 import com.orchid.orchidbe.repositories.AccountRepository;
 import com.orchid.orchidbe.repositories.OrchidRepository;
+import com.orchid.orchidbe.repositories.OrchidStockRepository;
 import com.orchid.orchidbe.repositories.OrderDetailRepository;
 import com.orchid.orchidbe.repositories.OrderRepository;
 
 import java.time.LocalDate;
 import java.time.LocalDateTime;
+import java.time.temporal.ChronoUnit;
 import java.util.Date;
+import java.util.EnumSet;
 import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.SortedMap;
+import java.util.TreeMap;
+import java.util.function.Function;
+import java.util.stream.Collectors;
 
 import jakarta.transaction.Transactional;
 import lombok.RequiredArgsConstructor;
 import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.data.domain.Page;
+import org.springframework.data.domain.PageRequest;
 import org.springframework.security.core.context.SecurityContext;
 import org.springframework.security.core.context.SecurityContextHolder;
 import org.springframework.stereotype.Service;
@@ -25,8 +40,13 @@ import org.springframework.stereotype.Service;
 @Service
 @RequiredArgsConstructor
 public class OrderServiceImpl implements OrderService{
+    // Only unpaid (PENDING) orders can be paid or cancelled; once paid they belong to fulfillment
+    private static final Set<Order.OrderStatus> PAYABLE = EnumSet.of(Order.OrderStatus.PENDING);
+    private static final Set<Order.OrderStatus> CANCELLABLE = Order.OrderStatus.sourcesOf(Order.OrderStatus.CANCELLED);
+
     private  final OrderRepository orderRepository;
     private final AccountRepository accountRepository;
+    private final OrchidStockRepository orchidStockRepository;
     @Autowired
     OrderDetailRepository orderDetailRepository;
 
@@ -35,30 +55,45 @@ public class OrderServiceImpl implements OrderService{
     @Autowired
     JwtUtil jwtUtil;
 
+    /**
+     * Loads a page in three selects whatever its size: the ids of the page, the
+     * order columns, then the details of all of them at once.
+     */
     @Override
-    public List<OrderDTO.OrderRes> getAll() {
-        return orderRepository.findAll().stream()
-                .map(this::mapToOrderRes)
-                .toList();
+    public OrderDTO.OrderPageRes getAll(Order.OrderStatus status, LocalDateTime from, LocalDateTime to, int page, int size) {
+        if (from != null && to != null && !from.isBefore(to)) {
+            throw new IllegalArgumentException("'from' must be before 'to'");
+        }
+        var pageable = PageRequest.of(Math.max(page, 0), Math.clamp(size, 1, MAX_PAGE_SIZE));
+        Page<Integer> ids = orderRepository.findIdPage(status, from, to, pageable);
+        Map<Integer, OrderDTO.OrderHead> heads = ids.isEmpty() ? Map.of()
+                : orderRepository.findHeadsByIdIn(ids.getContent()).stream()
+                        .collect(Collectors.toMap(OrderDTO.OrderHead::id, Function.identity()));
+        // Keep the order of the id page, the IN query does not preserve it
+        var items = withDetails(ids.getContent().stream().map(heads::get).toList());
+        return new OrderDTO.OrderPageRes(items, ids.getNumber(), ids.getSize(),
+                ids.getTotalElements(), ids.getTotalPages());
     }
 
     @Override
     public OrderDTO.OrderRes getById(int id) {
-        return orderRepository.findById(id)
-                .map(this::mapToOrderRes)
+        return orderRepository.findHeadById(id)
+                .map(head -> withDetails(List.of(head)).get(0))
                 .orElseThrow(() -> new IllegalArgumentException("Order not found with ID: " + id));
     }
 
     @Override
     public List<OrderDTO.OrderRes> getByAccount() {
         Account account = getCurrentAccount();
-        return orderRepository.findByAccountId(account.getId()).stream()
-                .map(this::mapToOrderRes)
-                .toList();
+        return withDetails(orderRepository.findHeadsByAccountId(account.getId()));
     }
 
     private Account getCurrentAccount() {
         SecurityContext securityContext = SecurityContextHolder.getContext();
+        // Token principals carry the account id, a reference is all an order needs
+        if (securityContext.getAuthentication().getPrincipal() instanceof JwtPrincipal principal) {
+            return accountRepository.getReferenceById(principal.accountId());
+        }
         String username = securityContext.getAuthentication().getName();
         if (username == null || username.isEmpty()) {
             throw new IllegalArgumentException("Haven't login yet");
@@ -68,101 +103,193 @@ public class OrderServiceImpl implements OrderService{
     }
 
     @Override
+    @Transactional
     public OrderDTO.OrderRes add(OrderDTO.OrderReq order) {
         Account account = getCurrentAccount();
         var newOrder = new Order();
         newOrder.setOrderDate(LocalDateTime.now());
         newOrder.setOrderStatus(Order.OrderStatus.PENDING);
         newOrder.setAccount(account);
+        List<OrderDetail> details = buildDetails(newOrder, order.orderDetails());
+        newOrder.setTotalAmount(totalOf(details));
+        // Header first so the details have an order id, then every line in one batch
         orderRepository.save(newOrder);
-        double totalAmount = 0;
-        List<OrderDetail> details = order.orderDetails().stream().map(d -> {
-            OrderDetail detail = new OrderDetail();
-            detail.setOrder(newOrder);  // Gán foreign key
-            detail.setOrchid(orchidRepository.findById(d.productId()).orElseThrow(() -> new IllegalArgumentException("Orchid not found with ID: " + d.productId())));
-            detail.setQuantity(d.quantity());
-            return detail;
-        }).toList();
-        for (OrderDetail detail : details) {
-            totalAmount += detail.getOrchid().getPrice() * detail.getQuantity();
-        }
-        orderDetailRepository.saveAll(details);
-        newOrder.setTotalAmount(totalAmount);
-        orderRepository.save(newOrder);
-        return mapToOrderRes(newOrder,
+        orderDetailRepository.insertAll(details);
+        reserveStock(details);
+        return OrderMapper.toOrderRes(newOrder,
                 details);
     }
 
+    /**
+     * Replaces the lines of a PENDING order. Setting the new total is the
+     * status check: it matches no row once the order was paid or cancelled,
+     * and otherwise holds the row until commit, so a racing transition sees
+     * the new lines. The stock the old lines reserved goes back before the
+     * new lines take theirs.
+     */
     @Override
     @Transactional
     public OrderDTO.OrderRes update(OrderDTO.OrderUpReq order, int id) {
-        var existingOrder = orderRepository.findById(id)
-                .orElseThrow(() -> new IllegalArgumentException("Order not found with ID: " + id));
-        if(!existingOrder.getOrderStatus().equals(Order.OrderStatus.PENDING)) {
+        List<OrderDetail> details = buildDetails(orderRepository.getReferenceById(id), order.orderDetails());
+        if (orderRepository.updateTotalIn(id, Order.OrderStatus.PENDING, totalOf(details)) == 0) {
+            headOf(id);
             throw new IllegalArgumentException("Order is not in PENDING status and cannot be updated");
         }
+        orchidStockRepository.release(List.of(id));
         orderDetailRepository.deleteByOrderId(id);
-        double totalAmount = 0;
-        List<OrderDetail> details = order.orderDetails().stream().map(d -> {
+        orderDetailRepository.insertAll(details);
+        reserveStock(details);
+        var lines = details.stream().map(OrderMapper::toDetailRes).toList();
+        return headOf(id).withDetails(lines);
+    }
+
+    /**
+     * Resolves every product of the request with a single query, so the number
+     * of round trips does not grow with the number of lines.
+     */
+    private List<OrderDetail> buildDetails(Order order, List<OrderDTO.OrderDetailReq> lines) {
+        var ids = lines.stream().map(OrderDTO.OrderDetailReq::productId).collect(Collectors.toSet());
+        Map<Integer, Orchid> orchids = orchidRepository.findAllWithCategoryByIdIn(ids).stream()
+                .collect(Collectors.toMap(Orchid::getId, Function.identity()));
+        return lines.stream().map(d -> {
+            Orchid orchid = orchids.get(d.productId());
+            if (orchid == null) {
+                throw new IllegalArgumentException("Orchid not found with ID: " + d.productId());
+            }
+            if (orchid.getPrice() == null) {
+                throw new IllegalArgumentException("Orchid with ID: " + d.productId() + " has no price and cannot be ordered");
+            }
             OrderDetail detail = new OrderDetail();
-            detail.setOrder(existingOrder);  // Gán foreign key
-            detail.setOrchid(orchidRepository.findById(d.productId()).orElseThrow(() -> new IllegalArgumentException("Orchid not found with ID: " + d.productId())));
+            detail.setOrder(order);  // Gán foreign key
+            detail.setOrchid(orchid);
+            detail.setPrice(orchid.getPrice());
             detail.setQuantity(d.quantity());
+            // Both callers reserve the lines before they commit
+            detail.setStockReserved(true);
             return detail;
         }).toList();
+    }
+
+    /**
+     * Takes the stock of the lines, last in the transaction so the hot stock
+     * rows stay locked for as short as possible. Orchids without a stock row
+     * are not limited.
+     */
+    private void reserveStock(List<OrderDetail> details) {
+        SortedMap<Integer, Integer> quantities = new TreeMap<>();
+        for (OrderDetail detail : details) {
+            quantities.merge(detail.getOrchid().getId(), detail.getQuantity(), Integer::sum);
+        }
+        Set<Integer> missed = orchidStockRepository.reserve(quantities);
+        if (missed.isEmpty()) {
+            return;
+        }
+        // Only read when an update matched no row: the orchids that have a stock row ran short
+        orchidStockRepository.findAllById(missed).stream()
+                .map(OrchidStock::getOrchidId)
+                .min(Integer::compare)
+                .ifPresent(orchidId -> {
+                    throw new IllegalArgumentException("Not enough stock for orchid with ID: " + orchidId);
+                });
+    }
+
+    private static double totalOf(List<OrderDetail> details) {
+        double totalAmount = 0;
         for (OrderDetail detail : details) {
-            totalAmount += detail.getOrchid().getPrice() * detail.getQuantity();
+            totalAmount += detail.getPrice() * detail.getQuantity();
         }
-        existingOrder.setTotalAmount(totalAmount);
-        orderDetailRepository.saveAll(details);
-        orderRepository.save(existingOrder);
-        return  mapToOrderRes(existingOrder, details);
+        return totalAmount;
     }
 
+    /**
+     * Cancels an unpaid order with one conditional update from PENDING, and
+     * only the request that made the move puts the stock back. Paid orders
+     * can no longer be cancelled; cancelling a cancelled order again changes
+     * nothing.
+     */
     @Override
+    @Transactional
     public void delete(int id) {
-        var existingOrder = orderRepository.findById(id)
-                .orElseThrow(() -> new IllegalArgumentException("Order not found with ID: " + id));
-        existingOrder.setOrderStatus(Order.OrderStatus.CANCELLED);
-        orderRepository.save(existingOrder);
+        if (orderRepository.transition(id, CANCELLABLE, Order.OrderStatus.CANCELLED) == 0) {
+            var status = headOf(id).orderStatus();
+            if (status != Order.OrderStatus.CANCELLED) {
+                throw new IllegalArgumentException("Order in " + status + " status cannot be cancelled");
+            }
+            return;
+        }
+        orchidStockRepository.release(List.of(id));
     }
 
     @Override
+    @Transactional
     public OrderDTO.OrderRes pay(int id) {
-        var existingOrder = orderRepository.findById(id)
-                .orElseThrow(() -> new IllegalArgumentException("Order not found with ID: " + id));
-        if (existingOrder.getOrderStatus() != Order.OrderStatus.PENDING) {
+        int accountId = getCurrentAccount().getId();
+        if (orderRepository.transitionOwned(id, accountId, PAYABLE, Order.OrderStatus.PAID) == 0) {
+            if (headOf(id).accountId() != accountId) {
+                throw new IllegalArgumentException("You are not authorized to pay this order");
+            }
             throw new IllegalArgumentException("Order is not in PENDING status");
         }
-        Account account = existingOrder.getAccount();
-        if(account!= getCurrentAccount()) {
-            throw new IllegalArgumentException("You are not authorized to pay this order");
+        return getById(id);
+    }
+
+    @Override
+    @Transactional
+    public int cancelStale(LocalDateTime before, int limit) {
+        var stale = orderRepository.findIdsInStatusBefore(Order.OrderStatus.PENDING, before, PageRequest.of(0, limit));
+        var cancelled = orderRepository.transitionAll(stale, EnumSet.of(Order.OrderStatus.PENDING),
+                Order.OrderStatus.CANCELLED);
+        if (!cancelled.isEmpty()) {
+            orchidStockRepository.release(cancelled);
         }
-        existingOrder.setOrderStatus(Order.OrderStatus.COMPLETED);
-        orderRepository.save(existingOrder);
-        return mapToOrderRes(existingOrder);
-    }
-
-    private OrderDTO.OrderRes mapToOrderRes(Order order,List<OrderDetail> details) {
-        return new OrderDTO.OrderRes(
-            order.getId(),
-            order.getTotalAmount(),
-            order.getOrderDate(),
-            order.getOrderStatus(),
-            order.getAccount().getId(),
-            details.stream().map(
-                detail -> new OrderDTO.OrderDetailRes(
-                    detail.getOrchid().getId(),
-                    detail.getOrchid().getName(),
-                    detail.getOrchid().getUrl(),
-                    detail.getOrchid().getCategory() != null ? detail.getOrchid().getCategory().getName() : "Unknown",
-                    detail.getQuantity(),
-                    detail.getOrchid().getPrice()
-                )
-            ).toList()
-        );
-    }
-    private OrderDTO.OrderRes mapToOrderRes(Order order) {
-        return mapToOrderRes(order, orderDetailRepository.findByOrderId(order.getId()));
+        return cancelled.size();
+    }
+
+    @Override
+    @Transactional
+    public Claim claimPaid(int limit) {
+        var paid = orderRepository.findIdsInStatus(Order.OrderStatus.PAID, PageRequest.of(0, limit));
+        // Millisecond precision survives the round trip through datetime2, so the stamp can be matched later
+        var claimedAt = LocalDateTime.now().truncatedTo(ChronoUnit.MILLIS);
+        return new Claim(orderRepository.claimAll(paid, claimedAt), claimedAt);
+    }
+
+    @Override
+    @Transactional
+    public int completeProcessing(Claim claim) {
+        return orderRepository.transitionClaimed(claim.ids(), claim.claimedAt(), Order.OrderStatus.COMPLETED).size();
+    }
+
+    @Override
+    @Transactional
+    public int releaseClaims(Claim claim) {
+        return orderRepository.transitionClaimed(claim.ids(), claim.claimedAt(), Order.OrderStatus.PAID).size();
+    }
+
+    @Override
+    @Transactional
+    public int requeueClaimedBefore(LocalDateTime claimedBefore) {
+        return orderRepository.transitionClaimedBefore(claimedBefore, Order.OrderStatus.PROCESSING,
+                Order.OrderStatus.PAID);
+    }
+
+    // Only read after a conditional update matched no row, to tell the caller why
+    private OrderDTO.OrderHead headOf(int id) {
+        return orderRepository.findHeadById(id)
+                .orElseThrow(() -> new IllegalArgumentException("Order not found with ID: " + id));
+    }
+
+    // One detail select for all the orders instead of one per order
+    private List<OrderDTO.OrderRes> withDetails(List<OrderDTO.OrderHead> heads) {
+        if (heads.isEmpty()) {
+            return List.of();
+        }
+        Map<Integer, List<OrderDTO.OrderDetailRes>> details = orderDetailRepository
+                .findLinesByOrderIdIn(heads.stream().map(OrderDTO.OrderHead::id).toList()).stream()
+                .collect(Collectors.groupingBy(OrderDTO.OrderLine::orderId,
+                        Collectors.mapping(OrderDTO.OrderLine::toRes, Collectors.toList())));
+        return heads.stream()
+                .map(head -> head.withDetails(details.getOrDefault(head.id(), List.of())))
+                .toList();
     }
 }
@@ -0,0 +1,82 @@
+package com.orchid.orchidbe.services;
+
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.Timer;
+import java.time.Duration;
+import java.time.LocalDateTime;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Component;
+
+/**
+ * Cancels orders left unpaid for longer than {@code orders.pending.ttl}, so
+ * their stock goes back on sale. Each batch is its own short transaction of
+ * {@code orders.pending.sweep.batch-size} orders; a run stops after
+ * {@code max-batches} and leaves the rest to the next one, so a backlog never
+ * turns into one long sweep. Runs are timed in {@code orders.pending.sweep}
+ * and cancelled orders counted in {@code orders.pending.expired}.
+ */
+@Slf4j
+@Component
+@ConditionalOnProperty(name = "orders.pending.sweep.enabled", matchIfMissing = true)
+public class PendingOrderSweeper {
+
+    private final OrderService orderService;
+    private final Duration ttl;
+    private final int batchSize;
+    private final int maxBatches;
+    private final Timer sweeps;
+    private final Counter expired;
+
+    public PendingOrderSweeper(OrderService orderService,
+                               MeterRegistry meterRegistry,
+                               @Value("${orders.pending.ttl:30m}") Duration ttl,
+                               @Value("${orders.pending.sweep.batch-size:500}") int batchSize,
+                               @Value("${orders.pending.sweep.max-batches:20}") int maxBatches) {
+        this.orderService = orderService;
+        this.ttl = ttl;
+        this.batchSize = Math.max(1, batchSize);
+        this.maxBatches = Math.max(1, maxBatches);
+        this.sweeps = Timer.builder("orders.pending.sweep")
+            .description("Runs of the sweeper cancelling unpaid orders")
+            .register(meterRegistry);
+        this.expired = Counter.builder("orders.pending.expired")
+            .description("Orders cancelled because they stayed unpaid for longer than orders.pending.ttl")
+            .register(meterRegistry);
+    }
+
+    @Scheduled(initialDelayString = "${orders.pending.sweep.interval:1m}",
+               fixedDelayString = "${orders.pending.sweep.interval:1m}")
+    public void scheduledSweep() {
+        try {
+            sweep();
+        } catch (RuntimeException e) {
+            // The next run starts over from the oldest order still pending
+            log.warn("Sweeping unpaid orders failed", e);
+        }
+    }
+
+    /** @return how many orders this run cancelled */
+    public int sweep() {
+        return sweeps.record(() -> {
+            var before = LocalDateTime.now().minus(ttl);
+            int total = 0;
+            for (int batch = 0; batch < maxBatches; batch++) {
+                int cancelled = orderService.cancelStale(before, batchSize);
+                expired.increment(cancelled);
+                total += cancelled;
+                // A short batch means nothing older is left, or the rest was paid meanwhile
+                if (cancelled < batchSize) {
+                    break;
+                }
+            }
+            if (total > 0) {
+                log.info("Cancelled {} orders unpaid for more than {}", total, ttl);
+            }
+            return total;
+        });
+    }
+}
@@ -0,0 +1,14 @@
+package com.orchid.orchidbe.services;
+
+import com.orchid.orchidbe.dto.AccountDTO;
+import com.orchid.orchidbe.pojos.Account;
+
+public interface TokenService {
+
+    record Rotation(Account account, AccountDTO.TokenPair tokens) {
+    }
+
+    AccountDTO.TokenPair issue(Account account);
+    Rotation refresh(String refreshToken);
+    void revoke(String refreshToken, String accessToken);
+}
@@ -0,0 +1,100 @@
+package com.orchid.orchidbe.services;
+
+import com.orchid.orchidbe.configs.JwtUtil;
+import com.orchid.orchidbe.configs.TokenRevocationList;
+import com.orchid.orchidbe.dto.AccountDTO;
+import com.orchid.orchidbe.pojos.Account;
+import com.orchid.orchidbe.pojos.RefreshToken;
+import com.orchid.orchidbe.repositories.RefreshTokenRepository;
+import io.jsonwebtoken.Claims;
+import io.jsonwebtoken.JwtException;
+import java.nio.charset.StandardCharsets;
+import java.security.MessageDigest;
+import java.security.NoSuchAlgorithmException;
+import java.security.SecureRandom;
+import java.time.Duration;
+import java.time.LocalDateTime;
+import java.util.Base64;
+import java.util.HexFormat;
+import java.util.UUID;
+import lombok.RequiredArgsConstructor;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.annotation.Transactional;
+
+@Service
+@RequiredArgsConstructor
+public class TokenServiceImpl implements TokenService {
+
+    private final JwtUtil jwtUtil;
+    private final RefreshTokenRepository refreshTokenRepository;
+    private final TokenRevocationList revocationList;
+    private final SecureRandom random = new SecureRandom();
+
+    @Value("${jwt.refresh-expiration:14d}")
+    private Duration refreshExpiration;
+
+    @Override
+    @Transactional
+    public AccountDTO.TokenPair issue(Account account) {
+        return issue(account, UUID.randomUUID().toString());
+    }
+
+    /**
+     * Exchanges a refresh token for a new pair. The old token is spent; if it
+     * is ever presented again someone else holds a copy, so the whole family
+     * is revoked and both parties have to log in again.
+     */
+    @Override
+    @Transactional(noRollbackFor = JwtException.class)
+    public Rotation refresh(String refreshToken) {
+        var current = refreshTokenRepository.findWithAccountByTokenHash(hash(refreshToken))
+                .orElseThrow(() -> new JwtException("Invalid refresh token"));
+        if (current.getExpiresAt().isBefore(LocalDateTime.now())) {
+            throw new JwtException("Refresh token expired");
+        }
+        if (current.isRevoked() || refreshTokenRepository.revokeIfActive(current.getId()) == 0) {
+            refreshTokenRepository.revokeFamily(current.getFamilyId());
+            throw new JwtException("Refresh token has been revoked");
+        }
+        var account = current.getAccount();
+        return new Rotation(account, issue(account, current.getFamilyId()));
+    }
+
+    @Override
+    @Transactional
+    public void revoke(String refreshToken, String accessToken) {
+        if (refreshToken != null && !refreshToken.isBlank()) {
+            refreshTokenRepository.findByTokenHash(hash(refreshToken))
+                    .ifPresent(token -> refreshTokenRepository.revokeFamily(token.getFamilyId()));
+        }
+        if (accessToken != null) {
+            try {
+                Claims claims = jwtUtil.verify(accessToken);
+                if (claims.getId() != null) {
+                    revocationList.revoke(claims.getId(), claims.getExpiration().toInstant());
+                }
+            } catch (JwtException | IllegalArgumentException e) {
+                // Expired or forged, there is nothing left to revoke
+            }
+        }
+    }
+
+    private AccountDTO.TokenPair issue(Account account, String familyId) {
+        byte[] secret = new byte[32];
+        random.nextBytes(secret);
+        String refreshToken = Base64.getUrlEncoder().withoutPadding().encodeToString(secret);
+        refreshTokenRepository.save(new RefreshToken(0, hash(refreshToken), familyId, account,
+                LocalDateTime.now().plus(refreshExpiration), false));
+        return new AccountDTO.TokenPair(jwtUtil.generateToken(account), refreshToken);
+    }
+
+    private static String hash(String token) {
+        try {
+            return HexFormat.of().formatHex(MessageDigest.getInstance("SHA-256")
+                    .digest(token.getBytes(StandardCharsets.US_ASCII)));
+        } catch (NoSuchAlgorithmException e) {
+            throw new IllegalStateException(e);
+        }
+    }
+}
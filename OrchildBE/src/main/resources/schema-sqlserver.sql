@@ -0,0 +1,23 @@
+-- Filtered indexes for the customer catalog. They only hold live stock, so
+-- soft-deleted orchids (is_available = 0) never grow the read path.
+-- Runs after Hibernate's ddl-auto (spring.jpa.defer-datasource-initialization).
+IF NOT EXISTS (SELECT 1 FROM sys.indexes WHERE name = 'ix_orchids_live' AND object_id = OBJECT_ID('orchids'))
+    CREATE INDEX ix_orchids_live ON orchids (orchid_id) WHERE is_available = 1;
+
+IF NOT EXISTS (SELECT 1 FROM sys.indexes WHERE name = 'ix_orchids_live_category' AND object_id = OBJECT_ID('orchids'))
+    CREATE INDEX ix_orchids_live_category ON orchids (category_id, orchid_id) WHERE is_available = 1;
+
+-- PAID (4) was added to order_status after the first schema. ddl-auto update
+-- never touches an existing check constraint, so a database created before it
+-- still rejects paid orders with CHECK (order_status BETWEEN 0 AND 3). Replace
+-- it once; databases created since already allow 4 and are left alone.
+DECLARE @sql nvarchar(max) = (
+    SELECT STRING_AGG('ALTER TABLE orders DROP CONSTRAINT ' + QUOTENAME(cc.name), ' ')
+    FROM sys.check_constraints cc
+    JOIN sys.columns c ON c.object_id = cc.parent_object_id AND c.column_id = cc.parent_column_id
+    WHERE cc.parent_object_id = OBJECT_ID('orders') AND c.name = 'order_status'
+        AND cc.definition NOT LIKE '%(4)%')
+IF @sql IS NOT NULL
+    EXEC sp_executesql @sql
+IF @sql IS NOT NULL
+    ALTER TABLE orders ADD CONSTRAINT ck_orders_order_status CHECK (order_status BETWEEN 0 AND 4);
@@ -0,0 +1,53 @@
+package com.orchid.orchidbe;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.test.context.ActiveProfiles;
+
+/**
+ * The generator at a small scale: the requested row counts, and every order
+ * total matching the lines that were generated for it.
+ */
+@SpringBootTest(properties = {
+        "spring.datasource.url=jdbc:h2:mem:bulk;DB_CLOSE_DELAY=-1",
+        "seed.bulk.enabled=true",
+        "seed.bulk.categories=20",
+        "seed.bulk.orchids=3000",
+        "seed.bulk.accounts=700",
+        "seed.bulk.orders=1234",
+        "seed.bulk.max-lines-per-order=5"
+})
+@ActiveProfiles("h2")
+class BulkDataGeneratorTest {
+
+    @Autowired
+    private JdbcTemplate jdbcTemplate;
+
+    @Autowired
+    private BulkDataGenerator bulkDataGenerator;
+
+    @Test
+    void generatesRequestedRowsWithConsistentTotals() {
+        // App.run has already generated once; a second run must not add anything
+        bulkDataGenerator.generate();
+
+        assertEquals(700, count("select count(*) from accounts where email like 'bulk-%'"));
+        assertEquals(20, count("select count(*) from categories where category_name like 'Bulk category %'"));
+        assertEquals(3000, count("select count(*) from orchids where orchid_name like 'Bulk orchid %'"));
+
+        String bulkOrders = "select o.id from orders o join accounts a on a.account_id = o.account_id where a.email like 'bulk-%'";
+        assertEquals(1234, count("select count(*) from (" + bulkOrders + ") b"));
+        assertEquals(0, count("select count(*) from (" + bulkOrders + ") b"
+                + " where not exists (select 1 from order_details d where d.order_id = b.id)"));
+        assertEquals(0, count("select count(*) from orders o where o.id in (" + bulkOrders + ")"
+                + " and abs(o.total_amount - (select sum(d.price * d.quantity) from order_details d where d.order_id = o.id)) > 0.001"));
+    }
+
+    private int count(String sql) {
+        return jdbcTemplate.queryForObject(sql, Integer.class);
+    }
+}
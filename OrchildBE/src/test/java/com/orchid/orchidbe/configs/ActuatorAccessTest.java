@@ -0,0 +1,48 @@
+package com.orchid.orchidbe.configs;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.autoconfigure.actuate.observability.AutoConfigureObservability;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.boot.test.web.client.TestRestTemplate;
+import org.springframework.boot.test.web.server.LocalManagementPort;
+import org.springframework.boot.test.web.server.LocalServerPort;
+import org.springframework.http.HttpStatus;
+import org.springframework.test.context.ActiveProfiles;
+
+/**
+ * Prometheus scrapes the loopback management listener without a token. A
+ * request to the API port stays unauthenticated even when it comes from the
+ * machine itself, as it does behind a local reverse proxy.
+ */
+@SpringBootTest(webEnvironment = SpringBootTest.WebEnvironment.RANDOM_PORT, properties = {
+        "spring.datasource.url=jdbc:h2:mem:actuator-access;DB_CLOSE_DELAY=-1",
+        "management.server.port=0"
+})
+@AutoConfigureObservability
+@ActiveProfiles("h2")
+class ActuatorAccessTest {
+
+    @LocalServerPort
+    private int port;
+
+    @LocalManagementPort
+    private int managementPort;
+
+    @Autowired
+    private TestRestTemplate restTemplate;
+
+    @Test
+    void onlyTheManagementListenerServesAnonymousScrapes() {
+        assertEquals(HttpStatus.OK, get(managementPort, "/actuator/prometheus"));
+        assertEquals(HttpStatus.UNAUTHORIZED, get(managementPort, "/actuator/metrics"));
+        assertEquals(HttpStatus.UNAUTHORIZED, get(port, "/actuator/prometheus"));
+    }
+
+    private HttpStatus get(int port, String path) {
+        return HttpStatus.valueOf(restTemplate.getForEntity("http://127.0.0.1:" + port + path, String.class)
+                .getStatusCode().value());
+    }
+}
@@ -0,0 +1,59 @@
+package com.orchid.orchidbe.configs;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+
+import java.time.Duration;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.TreeMap;
+import org.junit.jupiter.api.Test;
+
+/**
+ * Passwords must never reach the slow query log, whichever statement shape
+ * Hibernate used to bind them.
+ */
+class SlowQueryLogTest {
+
+    private final SlowQueryLog slowQueryLog = new SlowQueryLog(Duration.ZERO, List.of("accounts.password"), 2000, true);
+
+    @Test
+    void redactsInsertedPasswords() {
+        String sql = "insert into accounts (account_name,email,password,role_id) values (?,?,?,?)";
+
+        assertEquals(Set.of(3), slowQueryLog.redactedParameters(sql));
+        assertEquals("[1='Jane', 2='jane@example.com', 3=<redacted>, 4=2]",
+                slowQueryLog.describe(sql, parameters("Jane", "jane@example.com", "$2a$10$hash", 2L)));
+    }
+
+    @Test
+    void redactsEveryRowOfAMultiRowInsert() {
+        String sql = "INSERT INTO [accounts] ([email], [password]) VALUES (?, ?), (?, ?)";
+
+        assertEquals(Set.of(2, 4), slowQueryLog.redactedParameters(sql));
+    }
+
+    @Test
+    void redactsUpdatedAndComparedPasswords() {
+        assertEquals(Set.of(3), slowQueryLog.redactedParameters(
+                "update accounts set account_name=?,email=?,password=?,role_id=? where account_id=?"));
+        assertEquals(Set.of(2), slowQueryLog.redactedParameters(
+                "select a1_0.account_id from accounts a1_0 where a1_0.email=? and a1_0.password = ?"));
+    }
+
+    @Test
+    void leavesOtherTablesAndLiteralsAlone() {
+        assertEquals(Set.of(), slowQueryLog.redactedParameters(
+                "select o1_0.id from orders o1_0 where o1_0.account_id=?"));
+        assertEquals(Set.of(2), slowQueryLog.redactedParameters(
+                "select a.account_id from accounts a where a.email like '?%' and a.role_id=? and a.password=?"));
+    }
+
+    private static Map<Integer, Object> parameters(Object... values) {
+        Map<Integer, Object> parameters = new TreeMap<>();
+        for (int i = 0; i < values.length; i++) {
+            parameters.put(i + 1, values[i]);
+        }
+        return parameters;
+    }
+}
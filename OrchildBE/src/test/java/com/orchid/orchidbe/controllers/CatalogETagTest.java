@@ -0,0 +1,76 @@
+package com.orchid.orchidbe.controllers;
+
+import static org.junit.jupiter.api.Assertions.assertNotEquals;
+import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.get;
+import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.post;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.status;
+
+import com.fasterxml.jackson.databind.ObjectMapper;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.autoconfigure.web.servlet.AutoConfigureMockMvc;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.http.HttpHeaders;
+import org.springframework.http.MediaType;
+import org.springframework.test.context.ActiveProfiles;
+import org.springframework.test.web.servlet.MockMvc;
+
+/**
+ * A client that sends back the ETag of the available catalog gets 304,
+ * whether it was served the gzip or the identity body, and one encoding's
+ * tag never validates the other.
+ */
+@SpringBootTest(properties = "spring.datasource.url=jdbc:h2:mem:catalog-etag;DB_CLOSE_DELAY=-1")
+@ActiveProfiles("h2")
+@AutoConfigureMockMvc
+class CatalogETagTest {
+
+    private static final String AVAILABLE = "/api/v1/orchids/available";
+
+    @Autowired
+    private MockMvc mvc;
+
+    private final ObjectMapper objectMapper = new ObjectMapper();
+
+    private String token;
+
+    @BeforeEach
+    void login() throws Exception {
+        String body = mvc.perform(post("/api/v1/accounts/login")
+                        .contentType(MediaType.APPLICATION_JSON)
+                        .content("{\"email\":\"user@example.com\",\"password\":\"1\"}"))
+                .andExpect(status().isOk())
+                .andReturn().getResponse().getContentAsString();
+        token = objectMapper.readTree(body).path("data").path("token").asText();
+    }
+
+    @Test
+    void echoedTagIsNotModifiedForEitherEncoding() throws Exception {
+        String gzipTag = etag("gzip, deflate, br");
+        String plainTag = etag(null);
+
+        assertNotEquals(gzipTag, plainTag);
+        mvc.perform(get(AVAILABLE).header(HttpHeaders.AUTHORIZATION, "Bearer " + token)
+                        .header(HttpHeaders.ACCEPT_ENCODING, "gzip, deflate, br")
+                        .header(HttpHeaders.IF_NONE_MATCH, gzipTag))
+                .andExpect(status().isNotModified());
+        mvc.perform(get(AVAILABLE).header(HttpHeaders.AUTHORIZATION, "Bearer " + token)
+                        .header(HttpHeaders.IF_NONE_MATCH, plainTag))
+                .andExpect(status().isNotModified());
+        mvc.perform(get(AVAILABLE).header(HttpHeaders.AUTHORIZATION, "Bearer " + token)
+                        .header(HttpHeaders.ACCEPT_ENCODING, "gzip")
+                        .header(HttpHeaders.IF_NONE_MATCH, plainTag))
+                .andExpect(status().isOk());
+    }
+
+    private String etag(String acceptEncoding) throws Exception {
+        var request = get(AVAILABLE).header(HttpHeaders.AUTHORIZATION, "Bearer " + token);
+        if (acceptEncoding != null) {
+            request.header(HttpHeaders.ACCEPT_ENCODING, acceptEncoding);
+        }
+        return mvc.perform(request)
+                .andExpect(status().isOk())
+                .andReturn().getResponse().getHeader(HttpHeaders.ETAG);
+    }
+}
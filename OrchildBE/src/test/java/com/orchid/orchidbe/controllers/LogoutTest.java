@@ -0,0 +1,80 @@
+package com.orchid.orchidbe.controllers;
+
+import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.get;
+import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.post;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.status;
+
+import com.fasterxml.jackson.databind.JsonNode;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import java.util.Map;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.autoconfigure.web.servlet.AutoConfigureMockMvc;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.http.HttpHeaders;
+import org.springframework.http.MediaType;
+import org.springframework.test.context.ActiveProfiles;
+import org.springframework.test.web.servlet.MockMvc;
+
+/**
+ * Logout ends the session even when the client's access token has already
+ * expired, which is the usual case after the tab sat idle. Access tokens
+ * here expire a millisecond after they are issued.
+ */
+@SpringBootTest(properties = {
+        "spring.datasource.url=jdbc:h2:mem:logout;DB_CLOSE_DELAY=-1",
+        "jwt.expiration=1"
+})
+@ActiveProfiles("h2")
+@AutoConfigureMockMvc
+class LogoutTest {
+
+    @Autowired
+    private MockMvc mvc;
+
+    private final ObjectMapper objectMapper = new ObjectMapper();
+
+    @Test
+    void logoutWithAnExpiredAccessTokenRevokesTheSession() throws Exception {
+        JsonNode session = login();
+        String expired = session.path("token").asText();
+        String refreshToken = session.path("refreshToken").asText();
+        mvc.perform(get("/api/v1/accounts/me").header(HttpHeaders.AUTHORIZATION, "Bearer " + expired))
+                .andExpect(status().isUnauthorized());
+
+        mvc.perform(post("/api/v1/accounts/logout")
+                        .header(HttpHeaders.AUTHORIZATION, "Bearer " + expired)
+                        .contentType(MediaType.APPLICATION_JSON)
+                        .content(refreshBody(refreshToken)))
+                .andExpect(status().is2xxSuccessful());
+
+        mvc.perform(post("/api/v1/accounts/refresh")
+                        .contentType(MediaType.APPLICATION_JSON)
+                        .content(refreshBody(refreshToken)))
+                .andExpect(status().isUnauthorized());
+    }
+
+    @Test
+    void refreshAcceptsAStaleBearerToken() throws Exception {
+        JsonNode session = login();
+
+        mvc.perform(post("/api/v1/accounts/refresh")
+                        .header(HttpHeaders.AUTHORIZATION, "Bearer " + session.path("token").asText())
+                        .contentType(MediaType.APPLICATION_JSON)
+                        .content(refreshBody(session.path("refreshToken").asText())))
+                .andExpect(status().isOk());
+    }
+
+    private JsonNode login() throws Exception {
+        String body = mvc.perform(post("/api/v1/accounts/login")
+                        .contentType(MediaType.APPLICATION_JSON)
+                        .content("{\"email\":\"user@example.com\",\"password\":\"1\"}"))
+                .andExpect(status().isOk())
+                .andReturn().getResponse().getContentAsString();
+        return objectMapper.readTree(body).path("data");
+    }
+
+    private String refreshBody(String refreshToken) throws Exception {
+        return objectMapper.writeValueAsString(Map.of("refreshToken", refreshToken));
+    }
+}
@@ -0,0 +1,159 @@
+package com.orchid.orchidbe.controllers;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertNull;
+import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.post;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.status;
+
+import com.fasterxml.jackson.databind.JsonNode;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.orchid.orchidbe.configs.IdempotencyStore;
+import com.orchid.orchidbe.repositories.OrderRepository;
+import java.util.ArrayList;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Set;
+import java.util.UUID;
+import java.util.concurrent.Callable;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.autoconfigure.web.servlet.AutoConfigureMockMvc;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.http.HttpHeaders;
+import org.springframework.http.MediaType;
+import org.springframework.mock.web.MockHttpServletResponse;
+import org.springframework.test.context.ActiveProfiles;
+import org.springframework.test.web.servlet.MockMvc;
+
+/**
+ * Retries and concurrent duplicates of order creation and payment with one
+ * {@code Idempotency-Key} run once and all get the first response.
+ */
+@SpringBootTest(properties = "spring.datasource.url=jdbc:h2:mem:order-idempotency;DB_CLOSE_DELAY=-1")
+@ActiveProfiles("h2")
+@AutoConfigureMockMvc
+class OrderIdempotencyTest {
+
+    private static final String CART = "{\"orderDetails\":[{\"productId\":1,\"quantity\":2}]}";
+
+    @Autowired
+    private MockMvc mvc;
+
+    @Autowired
+    private OrderRepository orderRepository;
+
+    private final ObjectMapper objectMapper = new ObjectMapper();
+
+    private String token;
+
+    @BeforeEach
+    void login() throws Exception {
+        String body = mvc.perform(post("/api/v1/accounts/login")
+                        .contentType(MediaType.APPLICATION_JSON)
+                        .content("{\"email\":\"user@example.com\",\"password\":\"1\"}"))
+                .andExpect(status().isOk())
+                .andReturn().getResponse().getContentAsString();
+        token = objectMapper.readTree(body).path("data").path("token").asText();
+    }
+
+    @Test
+    void retriedOrderIsCreatedOnce() throws Exception {
+        String key = UUID.randomUUID().toString();
+        long before = orderRepository.count();
+
+        var first = placeOrder(key, CART);
+        var retry = placeOrder(key, CART);
+
+        assertEquals(201, first.getStatus());
+        assertEquals(201, retry.getStatus());
+        assertNull(first.getHeader(IdempotencyStore.REPLAYED_HEADER));
+        assertEquals("true", retry.getHeader(IdempotencyStore.REPLAYED_HEADER));
+        assertEquals(data(first), data(retry));
+        assertEquals(before + 1, orderRepository.count());
+    }
+
+    @Test
+    void concurrentDuplicatesShareOneExecution() throws Exception {
+        String key = UUID.randomUUID().toString();
+        long before = orderRepository.count();
+        int clients = 8;
+        var start = new CountDownLatch(1);
+        ExecutorService pool = Executors.newFixedThreadPool(clients);
+        try {
+            List<Future<MockHttpServletResponse>> responses = new ArrayList<>();
+            for (int i = 0; i < clients; i++) {
+                responses.add(pool.submit((Callable<MockHttpServletResponse>) () -> {
+                    start.await();
+                    return placeOrder(key, CART);
+                }));
+            }
+            start.countDown();
+
+            Set<Integer> orderIds = new HashSet<>();
+            for (var response : responses) {
+                assertEquals(201, response.get().getStatus());
+                orderIds.add(data(response.get()).path("id").asInt());
+            }
+            assertEquals(1, orderIds.size());
+            assertEquals(before + 1, orderRepository.count());
+        } finally {
+            pool.shutdownNow();
+        }
+    }
+
+    @Test
+    void keyReusedForAnotherRequestIsRejected() throws Exception {
+        String key = UUID.randomUUID().toString();
+        placeOrder(key, CART);
+
+        var other = placeOrder(key, "{\"orderDetails\":[{\"productId\":2,\"quantity\":1}]}");
+
+        assertEquals(400, other.getStatus());
+    }
+
+    @Test
+    void retriedPaymentReplaysTheFirstResponse() throws Exception {
+        int orderId = data(placeOrder(null, CART)).path("id").asInt();
+        String key = UUID.randomUUID().toString();
+
+        var first = pay(orderId, key);
+        var retry = pay(orderId, key);
+        var withoutKey = pay(orderId, null);
+
+        assertEquals(200, first.getStatus());
+        assertEquals(200, retry.getStatus());
+        assertEquals("true", retry.getHeader(IdempotencyStore.REPLAYED_HEADER));
+        assertEquals(data(first), data(retry));
+        // Only the retry is replayed, a fresh attempt still finds the order paid
+        assertEquals(400, withoutKey.getStatus());
+    }
+
+    private MockHttpServletResponse placeOrder(String key, String cart) throws Exception {
+        var request = post("/api/v1/orders")
+                .header(HttpHeaders.AUTHORIZATION, "Bearer " + token)
+                .contentType(MediaType.APPLICATION_JSON)
+                .content(cart);
+        if (key != null) {
+            request.header(IdempotencyStore.HEADER, key);
+        }
+        return mvc.perform(request).andReturn().getResponse();
+    }
+
+    private MockHttpServletResponse pay(int orderId, String key) throws Exception {
+        var request = post("/api/v1/orders/success/" + orderId)
+                .header(HttpHeaders.AUTHORIZATION, "Bearer " + token);
+        if (key != null) {
+            request.header(IdempotencyStore.HEADER, key);
+        }
+        return mvc.perform(request).andReturn().getResponse();
+    }
+
+    private JsonNode data(MockHttpServletResponse response) throws Exception {
+        return objectMapper.readTree(response.getContentAsString()).path("data");
+    }
+}
@@ -0,0 +1,197 @@
+package com.orchid.orchidbe.controllers;
+
+import static org.junit.jupiter.api.Assertions.assertAll;
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertNotNull;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.delete;
+import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.get;
+import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.post;
+import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.put;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.status;
+
+import com.fasterxml.jackson.databind.JsonNode;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.orchid.orchidbe.BulkDataGenerator;
+import com.orchid.orchidbe.configs.PrincipalCache;
+import com.orchid.orchidbe.configs.QueryCountHeaderAdvice;
+import java.util.Arrays;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import org.hibernate.SessionFactory;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.function.Executable;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.autoconfigure.web.servlet.AutoConfigureMockMvc;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.cache.CacheManager;
+import org.springframework.http.HttpHeaders;
+import org.springframework.http.MediaType;
+import org.springframework.test.context.ActiveProfiles;
+import org.springframework.test.web.servlet.MockMvc;
+import org.springframework.test.web.servlet.request.MockHttpServletRequestBuilder;
+
+/**
+ * Every endpoint has a fixed budget of SQL round trips, read from
+ * {@code X-Query-Count}. Each endpoint is measured on the seed data and again
+ * after the bulk generator has added a few hundred rows to every table; the
+ * two counts must be equal, which is what an N+1 breaks. Caches, the
+ * Hibernate second-level cache included, are cleared before each request, so
+ * the budget is the cold path.
+ */
+@SpringBootTest(properties = {
+        "spring.datasource.url=jdbc:h2:mem:query-budget;DB_CLOSE_DELAY=-1",
+        "query-count.header=true",
+        "seed.bulk.categories=10",
+        "seed.bulk.orchids=300",
+        "seed.bulk.accounts=50",
+        "seed.bulk.orders=200"
+})
+@ActiveProfiles("h2")
+@AutoConfigureMockMvc
+class QueryBudgetTest {
+
+    private static final Map<String, Integer> BUDGETS = new LinkedHashMap<>();
+
+    static {
+        BUDGETS.put("POST /accounts/login", 2);
+        BUDGETS.put("POST /accounts/refresh", 3);
+        BUDGETS.put("GET /accounts/me", 1);
+        BUDGETS.put("GET /accounts", 1);
+        BUDGETS.put("GET /accounts/{id}", 1);
+        BUDGETS.put("GET /categories", 1);
+        BUDGETS.put("GET /categories/{id}", 1);
+        BUDGETS.put("GET /orchids", 1);
+        BUDGETS.put("GET /orchids/available", 1);
+        BUDGETS.put("GET /orchids/{id}", 1);
+        // Orders also take stock, one batch however many lines; a change first puts the old stock back
+        BUDGETS.put("POST /orders", 5);
+        BUDGETS.put("GET /orders/{id}", 2);
+        BUDGETS.put("PUT /orders/{id}", 8);
+        BUDGETS.put("GET /orders/user", 2);
+        BUDGETS.put("POST /orders/success/{id}", 4);
+        BUDGETS.put("DELETE /orders/{id}", 3);
+        BUDGETS.put("GET /orders", 4);
+    }
+
+    @Autowired
+    private MockMvc mvc;
+
+    @Autowired
+    private CacheManager cacheManager;
+
+    @Autowired
+    private PrincipalCache principalCache;
+
+    @Autowired
+    private BulkDataGenerator bulkDataGenerator;
+
+    @Autowired
+    private SessionFactory sessionFactory;
+
+    private final ObjectMapper objectMapper = new ObjectMapper();
+
+    @Test
+    void queriesPerEndpointStayWithinBudgetAsDataGrows() throws Exception {
+        Map<String, Integer> seeded = measureAll();
+        bulkDataGenerator.generate();
+        Map<String, Integer> grown = measureAll();
+
+        assertAll(BUDGETS.entrySet().stream().map(budget -> (Executable) () -> {
+            String endpoint = budget.getKey();
+            assertEquals(seeded.get(endpoint), grown.get(endpoint), endpoint + " grows with the data");
+            assertTrue(grown.get(endpoint) <= budget.getValue(),
+                    endpoint + " made " + grown.get(endpoint) + " queries, budget " + budget.getValue());
+        }));
+    }
+
+    private Map<String, Integer> measureAll() throws Exception {
+        Map<String, Integer> queries = new LinkedHashMap<>();
+        String admin = login(new LinkedHashMap<>(), "admin@example.com").path("token").asText();
+
+        var user = login(queries, "user@example.com");
+        String token = user.path("token").asText();
+        var refreshed = data(measure(queries, "POST /accounts/refresh", post("/api/v1/accounts/refresh")
+                .contentType(MediaType.APPLICATION_JSON)
+                .content(json(Map.of("refreshToken", user.path("refreshToken").asText())))));
+        token = refreshed.path("token").asText();
+        int userId = data(measure(queries, "GET /accounts/me", get("/api/v1/accounts/me"), token)).path("id").asInt();
+        measure(queries, "GET /accounts", get("/api/v1/accounts"), admin);
+        measure(queries, "GET /accounts/{id}", get("/api/v1/accounts/" + userId), admin);
+
+        measure(queries, "GET /categories", get("/api/v1/categories"), token);
+        measure(queries, "GET /categories/{id}", get("/api/v1/categories/1"), token);
+        measure(queries, "GET /orchids", get("/api/v1/orchids"), admin);
+        measure(queries, "GET /orchids/available", get("/api/v1/orchids/available"), token);
+        measure(queries, "GET /orchids/{id}", get("/api/v1/orchids/1"), token);
+
+        int orderId = data(measure(queries, "POST /orders", post("/api/v1/orders")
+                .contentType(MediaType.APPLICATION_JSON)
+                .content(cart(1, 2)), token)).path("id").asInt();
+        measure(queries, "GET /orders/{id}", get("/api/v1/orders/" + orderId), token);
+        measure(queries, "PUT /orders/{id}", put("/api/v1/orders/" + orderId)
+                .contentType(MediaType.APPLICATION_JSON)
+                .content(cart(1, 2, 3)), token);
+        measure(queries, "GET /orders/user", get("/api/v1/orders/user"), token);
+        measure(queries, "POST /orders/success/{id}", post("/api/v1/orders/success/" + orderId), token);
+
+        int cancelled = data(perform(post("/api/v1/orders")
+                .contentType(MediaType.APPLICATION_JSON)
+                .content(cart(2)), token)).path("id").asInt();
+        measure(queries, "DELETE /orders/{id}", delete("/api/v1/orders/" + cancelled), token);
+        // Smaller than the seed data, a first page that is not full skips the count query
+        measure(queries, "GET /orders", get("/api/v1/orders?size=2"), admin);
+        return queries;
+    }
+
+    private JsonNode measure(Map<String, Integer> queries, String endpoint,
+                             MockHttpServletRequestBuilder request, String token) throws Exception {
+        return measure(queries, endpoint, request.header(HttpHeaders.AUTHORIZATION, "Bearer " + token));
+    }
+
+    private JsonNode measure(Map<String, Integer> queries, String endpoint,
+                             MockHttpServletRequestBuilder request) throws Exception {
+        coldCaches();
+        var response = mvc.perform(request).andExpect(status().is2xxSuccessful()).andReturn().getResponse();
+        String header = response.getHeader(QueryCountHeaderAdvice.HEADER);
+        assertNotNull(header, endpoint + " has no " + QueryCountHeaderAdvice.HEADER + " header");
+        queries.put(endpoint, Integer.parseInt(header));
+        String body = response.getContentAsString();
+        return body.isEmpty() ? objectMapper.nullNode() : objectMapper.readTree(body);
+    }
+
+    private JsonNode perform(MockHttpServletRequestBuilder request, String token) throws Exception {
+        String body = mvc.perform(request.header(HttpHeaders.AUTHORIZATION, "Bearer " + token))
+                .andExpect(status().is2xxSuccessful())
+                .andReturn().getResponse().getContentAsString();
+        return objectMapper.readTree(body);
+    }
+
+    private JsonNode login(Map<String, Integer> queries, String email) throws Exception {
+        var response = measure(queries, "POST /accounts/login", post("/api/v1/accounts/login")
+                .contentType(MediaType.APPLICATION_JSON)
+                .content(json(Map.of("email", email, "password", "1"))));
+        return data(response);
+    }
+
+    private void coldCaches() {
+        cacheManager.getCacheNames().forEach(name -> cacheManager.getCache(name).clear());
+        List.of("admin@example.com", "user@example.com").forEach(principalCache::evict);
+        sessionFactory.getCache().evictAllRegions();
+    }
+
+    private String cart(int... orchidIds) throws Exception {
+        return json(Map.of("orderDetails", Arrays.stream(orchidIds)
+                .mapToObj(id -> Map.of("productId", id, "quantity", 1))
+                .toList()));
+    }
+
+    private String json(Object value) throws Exception {
+        return objectMapper.writeValueAsString(value);
+    }
+
+    private static JsonNode data(JsonNode response) {
+        return response.path("data");
+    }
+}
@@ -0,0 +1,126 @@
+package com.orchid.orchidbe.controllers;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.get;
+import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.post;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.status;
+
+import com.fasterxml.jackson.databind.JsonNode;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.orchid.orchidbe.configs.ObservedDataSource;
+import com.orchid.orchidbe.configs.PrincipalCache;
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.List;
+import java.util.Map;
+import java.util.regex.Pattern;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.autoconfigure.web.servlet.AutoConfigureMockMvc;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.boot.test.context.TestConfiguration;
+import org.springframework.cache.CacheManager;
+import org.springframework.context.annotation.Bean;
+import org.springframework.http.HttpHeaders;
+import org.springframework.http.MediaType;
+import org.springframework.test.context.ActiveProfiles;
+import org.springframework.test.web.servlet.MockMvc;
+import org.springframework.test.web.servlet.request.MockHttpServletRequestBuilder;
+
+/**
+ * Once the second-level and query caches are warm, catalog and auth reads no
+ * longer look up categories or roles on their own, whatever the Spring caches
+ * in front of them hold. Joining the role into the account select, where the
+ * role is needed anyway, costs no extra round trip and is allowed. Statements
+ * are recorded through an {@link ObservedDataSource.Listener}; the Spring
+ * caches and the principal cache are cleared before every request so the
+ * reads reach Hibernate.
+ */
+@SpringBootTest(properties = "spring.datasource.url=jdbc:h2:mem:second-level-cache;DB_CLOSE_DELAY=-1")
+@ActiveProfiles("h2")
+@AutoConfigureMockMvc
+class SecondLevelCacheTest {
+
+    private static final Pattern CACHED_TABLE_LOOKUP = Pattern.compile("\\bfrom\\s+(categories|roles)\\b",
+            Pattern.CASE_INSENSITIVE);
+
+    @TestConfiguration
+    static class RecordingConfig {
+
+        @Bean
+        StatementRecorder statementRecorder() {
+            return new StatementRecorder();
+        }
+    }
+
+    static class StatementRecorder implements ObservedDataSource.Listener {
+
+        final List<String> statements = Collections.synchronizedList(new ArrayList<>());
+
+        @Override
+        public void executed(String sql, Map<Integer, Object> parameters, int batchSize, long nanos) {
+            statements.add(sql);
+        }
+    }
+
+    @Autowired
+    private MockMvc mvc;
+
+    @Autowired
+    private StatementRecorder recorder;
+
+    @Autowired
+    private CacheManager cacheManager;
+
+    @Autowired
+    private PrincipalCache principalCache;
+
+    private final ObjectMapper objectMapper = new ObjectMapper();
+
+    @Test
+    void steadyStateReadsSkipCachedTables() throws Exception {
+        readEverything(0);
+        recorder.statements.clear();
+
+        readEverything(1);
+
+        List<String> hits = recorder.statements.stream()
+                .filter(sql -> sql != null && CACHED_TABLE_LOOKUP.matcher(sql).find())
+                .toList();
+        assertEquals(List.of(), hits, "lookups in second-level cached tables");
+    }
+
+    private void readEverything(int round) throws Exception {
+        perform(post("/api/v1/accounts/register")
+                .contentType(MediaType.APPLICATION_JSON)
+                .content(json(Map.of("name", "Cache " + round, "email", "cache-" + round + "@example.com",
+                        "password", "1"))));
+        var tokens = perform(post("/api/v1/accounts/login")
+                .contentType(MediaType.APPLICATION_JSON)
+                .content(json(Map.of("email", "user@example.com", "password", "1")))).path("data");
+        String token = perform(post("/api/v1/accounts/refresh")
+                .contentType(MediaType.APPLICATION_JSON)
+                .content(json(Map.of("refreshToken", tokens.path("refreshToken").asText()))))
+                .path("data").path("token").asText();
+
+        perform(get("/api/v1/accounts/me"), token);
+        perform(get("/api/v1/categories"), token);
+        perform(get("/api/v1/categories/1"), token);
+    }
+
+    private JsonNode perform(MockHttpServletRequestBuilder request, String token) throws Exception {
+        return perform(request.header(HttpHeaders.AUTHORIZATION, "Bearer " + token));
+    }
+
+    private JsonNode perform(MockHttpServletRequestBuilder request) throws Exception {
+        cacheManager.getCacheNames().forEach(name -> cacheManager.getCache(name).clear());
+        principalCache.evict("user@example.com");
+        String body = mvc.perform(request).andExpect(status().is2xxSuccessful())
+                .andReturn().getResponse().getContentAsString();
+        return body.isEmpty() ? objectMapper.nullNode() : objectMapper.readTree(body);
+    }
+
+    private String json(Object value) throws Exception {
+        return objectMapper.writeValueAsString(value);
+    }
+}
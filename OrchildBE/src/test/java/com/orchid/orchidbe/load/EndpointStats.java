@@ -0,0 +1,63 @@
+package com.orchid.orchidbe.load;
+
+import java.util.LinkedHashMap;
+import java.util.Map;
+import java.util.concurrent.TimeUnit;
+import org.HdrHistogram.Histogram;
+
+/**
+ * Latencies and failures of one endpoint. Each worker keeps its own and they
+ * are merged once the run is over, so recording never contends.
+ */
+final class EndpointStats {
+
+    private static final long HIGHEST_NANOS = TimeUnit.MINUTES.toNanos(1);
+
+    private final Histogram latencies = new Histogram(HIGHEST_NANOS, 3);
+    private long errors;
+
+    void record(long nanos, boolean ok) {
+        latencies.recordValue(Math.min(nanos, HIGHEST_NANOS));
+        if (!ok) {
+            errors++;
+        }
+    }
+
+    void add(EndpointStats other) {
+        latencies.add(other.latencies);
+        errors += other.errors;
+    }
+
+    long requests() {
+        return latencies.getTotalCount();
+    }
+
+    long errors() {
+        return errors;
+    }
+
+    double percentileMillis(double percentile) {
+        return latencies.getValueAtPercentile(percentile) / 1e6;
+    }
+
+    Map<String, Object> toReport(double seconds) {
+        Map<String, Object> latency = new LinkedHashMap<>();
+        latency.put("mean", round(latencies.getMean() / 1e6));
+        latency.put("p50", round(percentileMillis(50)));
+        latency.put("p90", round(percentileMillis(90)));
+        latency.put("p99", round(percentileMillis(99)));
+        latency.put("p99.9", round(percentileMillis(99.9)));
+        latency.put("max", round(latencies.getMaxValue() / 1e6));
+
+        Map<String, Object> report = new LinkedHashMap<>();
+        report.put("requests", requests());
+        report.put("errors", errors);
+        report.put("throughput", round(requests() / seconds));
+        report.put("latencyMs", latency);
+        return report;
+    }
+
+    private static double round(double value) {
+        return Math.round(value * 100) / 100.0;
+    }
+}
@@ -0,0 +1,43 @@
+package com.orchid.orchidbe.load;
+
+import com.orchid.orchidbe.App;
+import java.util.ArrayList;
+import java.util.List;
+import org.springframework.boot.builder.SpringApplicationBuilder;
+import org.springframework.context.ConfigurableApplicationContext;
+
+/**
+ * The application booted on a random port for a load run, with its own
+ * in-memory database so consecutive runs in one JVM start from the same state.
+ */
+final class LoadApp implements AutoCloseable {
+
+    private final ConfigurableApplicationContext context;
+
+    private LoadApp(ConfigurableApplicationContext context) {
+        this.context = context;
+    }
+
+    static LoadApp start(String profiles, String database, String... extraArgs) {
+        // Arguments, so they win over application.yml (which activates dev)
+        List<String> args = new ArrayList<>(List.of(
+                "--spring.profiles.active=" + profiles,
+                "--server.port=0",
+                "--spring.datasource.url=jdbc:h2:mem:load-" + database + ";DB_CLOSE_DELAY=-1"));
+        args.addAll(List.of(extraArgs));
+        return new LoadApp(new SpringApplicationBuilder(App.class).run(args.toArray(String[]::new)));
+    }
+
+    String baseUrl() {
+        return "http://localhost:" + context.getEnvironment().getProperty("local.server.port");
+    }
+
+    <T> T bean(Class<T> type) {
+        return context.getBean(type);
+    }
+
+    @Override
+    public void close() {
+        context.close();
+    }
+}
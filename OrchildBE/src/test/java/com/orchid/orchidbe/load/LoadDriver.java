@@ -0,0 +1,80 @@
+package com.orchid.orchidbe.load;
+
+import java.net.URI;
+import java.net.http.HttpClient;
+import java.net.http.HttpRequest;
+import java.net.http.HttpResponse;
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+
+/**
+ * Closed-loop HTTP load on a single URL: a fixed number of workers, each
+ * sending its next request as soon as the previous one answers, for a fixed
+ * duration.
+ */
+final class LoadDriver {
+
+    private final HttpClient client = HttpClient.newBuilder()
+        .connectTimeout(Duration.ofSeconds(5))
+        .build();
+
+    private final int concurrency;
+    private final Duration duration;
+
+    LoadDriver(int concurrency, Duration duration) {
+        this.concurrency = concurrency;
+        this.duration = duration;
+    }
+
+    Result run(URI uri, String bearerToken) throws Exception {
+        var request = HttpRequest.newBuilder(uri)
+            .header("Authorization", "Bearer " + bearerToken)
+            .timeout(Duration.ofSeconds(30))
+            .GET()
+            .build();
+        long deadline = System.nanoTime() + duration.toNanos();
+
+        List<Future<EndpointStats>> futures = new ArrayList<>();
+        try (ExecutorService workers = Executors.newFixedThreadPool(concurrency)) {
+            for (int i = 0; i < concurrency; i++) {
+                futures.add(workers.submit(() -> loop(request, deadline)));
+            }
+        }
+
+        var stats = new EndpointStats();
+        for (var future : futures) {
+            stats.add(future.get());
+        }
+        return new Result(stats, duration);
+    }
+
+    private EndpointStats loop(HttpRequest request, long deadline) {
+        var stats = new EndpointStats();
+        while (System.nanoTime() < deadline) {
+            long start = System.nanoTime();
+            boolean ok;
+            try {
+                ok = client.send(request, HttpResponse.BodyHandlers.discarding()).statusCode() == 200;
+            } catch (Exception e) {
+                ok = false;
+            }
+            stats.record(System.nanoTime() - start, ok);
+        }
+        return stats;
+    }
+
+    record Result(EndpointStats stats, Duration duration) {
+
+        double throughput() {
+            return stats.requests() / (duration.toNanos() / 1e9);
+        }
+
+        double percentileMillis(double percentile) {
+            return stats.percentileMillis(percentile);
+        }
+    }
+}
@@ -0,0 +1,97 @@
+package com.orchid.orchidbe.load;
+
+import com.fasterxml.jackson.databind.JsonNode;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import java.net.URI;
+import java.net.http.HttpClient;
+import java.net.http.HttpRequest;
+import java.net.http.HttpResponse;
+import java.time.Duration;
+import java.util.List;
+import java.util.Map;
+
+/**
+ * The calls a shopper makes, each one a single HTTP request. Responses are
+ * returned as parsed JSON, or null when the request failed.
+ */
+final class ShopClient {
+
+    private final HttpClient client = HttpClient.newBuilder()
+        .connectTimeout(Duration.ofSeconds(5))
+        .build();
+    private final ObjectMapper objectMapper = new ObjectMapper();
+    private final String api;
+
+    ShopClient(String baseUrl) {
+        this.api = baseUrl + "/api/v1";
+    }
+
+    Call login(String email, String password) {
+        return post("/accounts/login", null, Map.of("email", email, "password", password));
+    }
+
+    Call availableOrchids(String token, String cursor) {
+        return get("/orchids/available?size=20" + (cursor == null ? "" : "&cursor=" + cursor), token);
+    }
+
+    Call orchid(String token, int id) {
+        return get("/orchids/" + id, token);
+    }
+
+    Call placeOrder(String token, Map<Integer, Integer> quantities) {
+        List<Map<String, Integer>> lines = quantities.entrySet().stream()
+            .map(line -> Map.of("productId", line.getKey(), "quantity", line.getValue()))
+            .toList();
+        return post("/orders", token, Map.of("orderDetails", lines));
+    }
+
+    Call pay(String token, int orderId) {
+        return post("/orders/success/" + orderId, token, null);
+    }
+
+    private Call get(String path, String token) {
+        return send(authorized(HttpRequest.newBuilder(URI.create(api + path)), token).GET());
+    }
+
+    private Call post(String path, String token, Object body) {
+        try {
+            var publisher = body == null
+                ? HttpRequest.BodyPublishers.noBody()
+                : HttpRequest.BodyPublishers.ofByteArray(objectMapper.writeValueAsBytes(body));
+            return send(authorized(HttpRequest.newBuilder(URI.create(api + path)), token)
+                .header("Content-Type", "application/json")
+                .POST(publisher));
+        } catch (Exception e) {
+            return new Call(null, 0);
+        }
+    }
+
+    private static HttpRequest.Builder authorized(HttpRequest.Builder builder, String token) {
+        builder.timeout(Duration.ofSeconds(30));
+        return token == null ? builder : builder.header("Authorization", "Bearer " + token);
+    }
+
+    private Call send(HttpRequest.Builder request) {
+        long start = System.nanoTime();
+        try {
+            var response = client.send(request.build(), HttpResponse.BodyHandlers.ofByteArray());
+            long elapsed = System.nanoTime() - start;
+            boolean ok = response.statusCode() / 100 == 2;
+            return new Call(ok ? objectMapper.readTree(response.body()) : null, elapsed);
+        } catch (Exception e) {
+            return new Call(null, System.nanoTime() - start);
+        }
+    }
+
+    /** Outcome of one request; {@code body} is null when it failed. */
+    record Call(JsonNode body, long nanos) {
+
+        boolean ok() {
+            return body != null;
+        }
+
+        JsonNode data() {
+            return body == null ? null : body.path("data");
+        }
+    }
+}
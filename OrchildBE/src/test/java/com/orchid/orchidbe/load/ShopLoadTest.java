@@ -0,0 +1,257 @@
+package com.orchid.orchidbe.load;
+
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+import com.fasterxml.jackson.databind.JsonNode;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.orchid.orchidbe.pojos.Account;
+import com.orchid.orchidbe.pojos.Category;
+import com.orchid.orchidbe.pojos.Orchid;
+import com.orchid.orchidbe.repositories.AccountRepository;
+import com.orchid.orchidbe.repositories.CategoryRepository;
+import com.orchid.orchidbe.repositories.OrchidRepository;
+import com.orchid.orchidbe.repositories.RoleRepository;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.time.Instant;
+import java.util.ArrayList;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Random;
+import java.util.concurrent.Callable;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.concurrent.TimeUnit;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.condition.EnabledIfSystemProperty;
+import org.springframework.security.crypto.password.PasswordEncoder;
+
+/**
+ * Shoppers driving the whole purchase flow against the application on H2:
+ * log in, browse the available orchids, open a few of them, sometimes place
+ * an order and usually pay for it. Each shopper is one closed-loop worker with
+ * its own account. Latency per endpoint goes into HDR histograms and the
+ * results into a JSON report meant to be diffed between builds.
+ * <p>
+ * Skipped by default, run with
+ * {@code mvn test -Dtest=ShopLoadTest -Dload=true [-Dload.users=50 -Dload.seconds=60 -Dload.report=target/load-report.json]}.
+ * The other knobs are listed in {@link Config}.
+ */
+@EnabledIfSystemProperty(named = "load", matches = "true")
+class ShopLoadTest {
+
+    private static final String LOGIN = "POST /accounts/login";
+    private static final String BROWSE = "GET /orchids/available";
+    private static final String VIEW = "GET /orchids/{id}";
+    private static final String ORDER = "POST /orders";
+    private static final String PAY = "POST /orders/success/{id}";
+    private static final List<String> ENDPOINTS = List.of(LOGIN, BROWSE, VIEW, ORDER, PAY);
+
+    private static final String PASSWORD = "load";
+
+    @Test
+    void shopScenario() throws Exception {
+        var config = Config.fromSystemProperties();
+        // Every shopper logs in from 127.0.0.1, the login throttle would otherwise be what gets measured
+        try (var app = LoadApp.start(config.profiles(), "shop",
+                "--auth.throttle.ip.capacity=1000000000",
+                "--auth.throttle.email.capacity=1000000000")) {
+            seed(app, config);
+
+            var client = new ShopClient(app.baseUrl());
+            long measureFrom = System.nanoTime() + TimeUnit.SECONDS.toNanos(config.warmupSeconds());
+            long deadline = measureFrom + TimeUnit.SECONDS.toNanos(config.seconds());
+
+            List<Future<Map<String, EndpointStats>>> futures = new ArrayList<>();
+            try (ExecutorService workers = Executors.newFixedThreadPool(config.users())) {
+                for (int i = 0; i < config.users(); i++) {
+                    futures.add(workers.submit(new Shopper(client, config, i, measureFrom, deadline)));
+                }
+            }
+
+            Map<String, EndpointStats> totals = new LinkedHashMap<>();
+            ENDPOINTS.forEach(endpoint -> totals.put(endpoint, new EndpointStats()));
+            for (var future : futures) {
+                future.get().forEach((endpoint, stats) -> totals.get(endpoint).add(stats));
+            }
+
+            write(config, totals);
+            assertTrue(totals.get(BROWSE).requests() > 0, "no shopper completed a browse");
+        }
+    }
+
+    // Accounts share one hash, BCrypt for every shopper would dominate the setup
+    private static void seed(LoadApp app, Config config) {
+        String hash = app.bean(PasswordEncoder.class).encode(PASSWORD);
+        var userRole = app.bean(RoleRepository.class).findByName("User");
+        List<Account> accounts = new ArrayList<>();
+        for (int i = 0; i < config.users(); i++) {
+            accounts.add(new Account(0, "Shopper " + i, email(i), hash, userRole));
+        }
+        app.bean(AccountRepository.class).saveAll(accounts);
+
+        List<Category> categories = app.bean(CategoryRepository.class).findAll();
+        var random = new Random(config.seed());
+        List<Orchid> orchids = new ArrayList<>();
+        for (int i = 0; i < config.orchids(); i++) {
+            orchids.add(new Orchid(0, random.nextBoolean(), "Load orchid " + i, "Load orchid " + i,
+                    "https://example.com/orchids/" + i + ".jpg", 5.0 + random.nextInt(200),
+                    random.nextInt(10) > 0, categories.get(i % categories.size())));
+        }
+        app.bean(OrchidRepository.class).saveAll(orchids);
+    }
+
+    private static String email(int shopper) {
+        return "shopper" + shopper + "@load.example.com";
+    }
+
+    private static void write(Config config, Map<String, EndpointStats> totals) throws Exception {
+        Map<String, Object> endpoints = new LinkedHashMap<>();
+        totals.forEach((endpoint, stats) -> endpoints.put(endpoint, stats.toReport(config.seconds())));
+
+        Map<String, Object> report = new LinkedHashMap<>();
+        report.put("finishedAt", Instant.now().toString());
+        report.put("config", config);
+        report.put("endpoints", endpoints);
+
+        var path = Path.of(config.report());
+        if (path.getParent() != null) {
+            Files.createDirectories(path.getParent());
+        }
+        new ObjectMapper().writerWithDefaultPrettyPrinter().writeValue(path.toFile(), report);
+
+        System.out.printf("%n%d shoppers, %d s measured after %d s warm-up, profiles %s%n",
+                config.users(), config.seconds(), config.warmupSeconds(), config.profiles());
+        System.out.printf("%-28s %9s %8s %9s %9s %9s %9s%n", "endpoint", "requests", "errors", "req/s", "p50 ms", "p99 ms", "p99.9 ms");
+        totals.forEach((endpoint, stats) -> System.out.printf("%-28s %9d %8d %9.1f %9.1f %9.1f %9.1f%n",
+                endpoint, stats.requests(), stats.errors(), stats.requests() / (double) config.seconds(),
+                stats.percentileMillis(50), stats.percentileMillis(99), stats.percentileMillis(99.9)));
+        System.out.println("Report written to " + path.toAbsolutePath());
+    }
+
+    /**
+     * One shopper's session, repeated until the deadline. Calls made before
+     * {@code measureFrom} warm the server up and are not recorded.
+     */
+    private static final class Shopper implements Callable<Map<String, EndpointStats>> {
+
+        private final ShopClient client;
+        private final Config config;
+        private final String email;
+        private final Random random;
+        private final long measureFrom;
+        private final long deadline;
+        private final Map<String, EndpointStats> stats = new LinkedHashMap<>();
+
+        private String token;
+
+        Shopper(ShopClient client, Config config, int index, long measureFrom, long deadline) {
+            this.client = client;
+            this.config = config;
+            this.email = email(index);
+            this.random = new Random(config.seed() + index);
+            this.measureFrom = measureFrom;
+            this.deadline = deadline;
+            ENDPOINTS.forEach(endpoint -> stats.put(endpoint, new EndpointStats()));
+        }
+
+        @Override
+        public Map<String, EndpointStats> call() {
+            for (int iteration = 0; System.nanoTime() < deadline; iteration++) {
+                if (token == null || iteration % config.reloginEvery() == 0) {
+                    var login = record(LOGIN, client.login(email, PASSWORD));
+                    token = login.ok() ? login.data().path("token").asText() : null;
+                    if (token == null) {
+                        continue;
+                    }
+                }
+                shop();
+            }
+            return stats;
+        }
+
+        private void shop() {
+            var page = record(BROWSE, client.availableOrchids(token, null));
+            if (!page.ok()) {
+                return;
+            }
+            String cursor = page.data().path("nextCursor").asText(null);
+            if (cursor != null && random.nextBoolean()) {
+                var next = record(BROWSE, client.availableOrchids(token, cursor));
+                if (next.ok()) {
+                    page = next;
+                }
+            }
+
+            List<Integer> ids = new ArrayList<>();
+            for (JsonNode item : page.data().path("items")) {
+                ids.add(item.path("id").asInt());
+            }
+            if (ids.isEmpty()) {
+                return;
+            }
+            for (int i = 0; i < 2; i++) {
+                record(VIEW, client.orchid(token, pick(ids)));
+            }
+
+            if (random.nextDouble() >= config.orderRatio()) {
+                return;
+            }
+            Map<Integer, Integer> cart = new LinkedHashMap<>();
+            int lines = 1 + random.nextInt(3);
+            for (int i = 0; i < lines; i++) {
+                cart.put(pick(ids), 1 + random.nextInt(3));
+            }
+            var order = record(ORDER, client.placeOrder(token, cart));
+            if (order.ok() && random.nextDouble() < config.payRatio()) {
+                record(PAY, client.pay(token, order.data().path("id").asInt()));
+            }
+        }
+
+        private int pick(List<Integer> ids) {
+            return ids.get(random.nextInt(ids.size()));
+        }
+
+        private ShopClient.Call record(String endpoint, ShopClient.Call call) {
+            if (System.nanoTime() >= measureFrom) {
+                stats.get(endpoint).record(call.nanos(), call.ok());
+            }
+            return call;
+        }
+    }
+
+    /**
+     * Run settings, each read from the {@code load.*} system property of the
+     * same name. Serialized into the report so two runs can be compared like
+     * for like.
+     */
+    record Config(
+            String profiles,
+            int users,
+            int seconds,
+            int warmupSeconds,
+            int orchids,
+            double orderRatio,
+            double payRatio,
+            int reloginEvery,
+            long seed,
+            String report
+    ) {
+
+        static Config fromSystemProperties() {
+            return new Config(
+                    System.getProperty("load.profiles", "h2"),
+                    Integer.getInteger("load.users", 50),
+                    Integer.getInteger("load.seconds", 60),
+                    Integer.getInteger("load.warmupSeconds", 10),
+                    Integer.getInteger("load.orchids", 500),
+                    Double.parseDouble(System.getProperty("load.orderRatio", "0.2")),
+                    Double.parseDouble(System.getProperty("load.payRatio", "0.7")),
+                    Integer.getInteger("load.reloginEvery", 25),
+                    Long.getLong("load.seed", 42),
+                    System.getProperty("load.report", "target/load-report.json"));
+        }
+    }
+}
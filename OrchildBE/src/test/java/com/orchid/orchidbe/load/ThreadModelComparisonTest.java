@@ -0,0 +1,52 @@
+package com.orchid.orchidbe.load;
+
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+import java.net.URI;
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.List;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.condition.EnabledIfSystemProperty;
+
+/**
+ * Throughput and tail latency of the busiest reads with Tomcat on its platform
+ * thread pool and on virtual threads. Each mode boots its own server on the
+ * in-memory database, so the two runs share nothing but the machine.
+ * <p>
+ * Skipped by default, run with
+ * {@code mvn test -Dtest=ThreadModelComparisonTest -Dload=true [-Dload.concurrency=200 -Dload.seconds=20]}.
+ */
+@EnabledIfSystemProperty(named = "load", matches = "true")
+class ThreadModelComparisonTest {
+
+    private static final List<String> PATHS = List.of("/api/v1/orders?size=20", "/api/v1/orchids/available");
+
+    @Test
+    void compareThreadModels() throws Exception {
+        int concurrency = Integer.getInteger("load.concurrency", 200);
+        var duration = Duration.ofSeconds(Integer.getInteger("load.seconds", 15));
+
+        List<String> rows = new ArrayList<>();
+        for (String mode : new String[] {"platform", "virtual"}) {
+            String profiles = mode.equals("virtual") ? "h2,vthreads" : "h2";
+            try (var app = LoadApp.start(profiles, mode)) {
+                String baseUrl = app.baseUrl();
+                String token = new ShopClient(baseUrl).login("admin@example.com", "1").data().path("token").asText();
+                for (String path : PATHS) {
+                    var uri = URI.create(baseUrl + path);
+                    new LoadDriver(concurrency, Duration.ofSeconds(3)).run(uri, token); // warm up
+                    var result = new LoadDriver(concurrency, duration).run(uri, token);
+                    rows.add(String.format("%-9s %-28s %10.0f %9.1f %9.1f %7d", mode, path,
+                            result.throughput(), result.percentileMillis(50), result.percentileMillis(99),
+                            result.stats().errors()));
+                    assertTrue(result.stats().requests() > 0, "no request completed for " + path);
+                }
+            }
+        }
+
+        System.out.printf("%n%d concurrent clients, %d s per endpoint%n", concurrency, duration.toSeconds());
+        System.out.printf("%-9s %-28s %10s %9s %9s %7s%n", "threads", "endpoint", "req/s", "p50 ms", "p99 ms", "errors");
+        rows.forEach(System.out::println);
+    }
+}
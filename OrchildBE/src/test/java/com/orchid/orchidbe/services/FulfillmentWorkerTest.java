@@ -0,0 +1,206 @@
+package com.orchid.orchidbe.services;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+import com.orchid.orchidbe.dto.OrderDTO;
+import com.orchid.orchidbe.pojos.Order.OrderStatus;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import java.lang.reflect.Proxy;
+import java.time.Duration;
+import java.time.LocalDateTime;
+import java.time.temporal.ChronoUnit;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.CopyOnWriteArrayList;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.stream.IntStream;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.security.authentication.UsernamePasswordAuthenticationToken;
+import org.springframework.security.core.authority.SimpleGrantedAuthority;
+import org.springframework.security.core.context.SecurityContextHolder;
+import org.springframework.test.context.ActiveProfiles;
+
+/**
+ * Paid orders go through PROCESSING to COMPLETED in batches, and a saturated
+ * pool stops the dispatcher from claiming more. Claims that fail or outlive
+ * their lease go back to PAID, and a claim taken over since changes nothing.
+ */
+@SpringBootTest(properties = {
+        "spring.datasource.url=jdbc:h2:mem:fulfillment;DB_CLOSE_DELAY=-1",
+        "orders.fulfillment.interval=1h",
+        "orders.fulfillment.workers=2",
+        "orders.fulfillment.queue-size=1",
+        "orders.fulfillment.batch-size=3",
+        "orders.fulfillment.lease=10m"
+})
+@ActiveProfiles("h2")
+class FulfillmentWorkerTest {
+
+    private static final OrderDTO.OrderReq CART = new OrderDTO.OrderReq(List.of(new OrderDTO.OrderDetailReq(1, 1)));
+
+    @Autowired
+    private FulfillmentWorker worker;
+
+    @Autowired
+    private OrderService orderService;
+
+    @Autowired
+    private MeterRegistry meterRegistry;
+
+    @Autowired
+    private JdbcTemplate jdbcTemplate;
+
+    @AfterEach
+    void tearDown() {
+        SecurityContextHolder.clearContext();
+    }
+
+    @Test
+    void paidOrdersAreCompletedInBatches() throws Exception {
+        signIn();
+        List<Integer> paid = new ArrayList<>();
+        for (int i = 0; i < 10; i++) {
+            paid.add(paidOrder());
+        }
+        int unpaid = orderService.add(CART).id();
+        double before = meterRegistry.counter("orders.fulfillment.completed").count();
+
+        worker.dispatch();
+        // Workers dispatch again after a full batch, until the backlog is gone
+        assertTrue(worker.awaitIdle(Duration.ofSeconds(10)));
+        worker.dispatch();
+        assertTrue(worker.awaitIdle(Duration.ofSeconds(10)));
+
+        for (int id : paid) {
+            assertEquals(OrderStatus.COMPLETED, orderService.getById(id).orderStatus());
+        }
+        assertEquals(OrderStatus.PENDING, orderService.getById(unpaid).orderStatus());
+        assertEquals(10, meterRegistry.counter("orders.fulfillment.completed").count() - before);
+    }
+
+    @Test
+    void saturatedPoolClaimsNothingMore() throws Exception {
+        var backlog = new AtomicInteger(10);
+        var claims = new AtomicInteger();
+        var completed = new AtomicInteger();
+        var unblock = new CountDownLatch(1);
+        var stub = (OrderService) Proxy.newProxyInstance(OrderService.class.getClassLoader(),
+                new Class<?>[] {OrderService.class}, (proxy, method, args) -> switch (method.getName()) {
+                    case "claimPaid" -> {
+                        claims.incrementAndGet();
+                        int limit = (int) args[0];
+                        int left = backlog.getAndUpdate(n -> Math.max(0, n - limit));
+                        yield new OrderService.Claim(IntStream.range(0, Math.min(left, limit)).boxed().toList(),
+                                LocalDateTime.now());
+                    }
+                    case "requeueClaimedBefore" -> 0;
+                    case "completeProcessing" -> {
+                        unblock.await();
+                        int size = ((OrderService.Claim) args[0]).ids().size();
+                        completed.addAndGet(size);
+                        yield size;
+                    }
+                    default -> throw new UnsupportedOperationException(method.getName());
+                });
+        // One worker and one queued batch of two
+        var saturated = new FulfillmentWorker(stub, new SimpleMeterRegistry(), 1, 1, 2, Duration.ofMinutes(10));
+        try {
+            assertEquals(4, saturated.dispatch());
+            assertEquals(0, saturated.dispatch());
+            assertEquals(2, claims.get());
+            assertEquals(6, backlog.get());
+
+            unblock.countDown();
+            assertTrue(saturated.awaitIdle(Duration.ofSeconds(10)));
+            // Anything the busy slots kept the workers from claiming is picked up by the next run
+            saturated.dispatch();
+            assertTrue(saturated.awaitIdle(Duration.ofSeconds(10)));
+            assertEquals(10, completed.get());
+        } finally {
+            saturated.stop();
+        }
+    }
+
+    @Test
+    void expiredClaimsAreFulfilledByTheNextRun() throws Exception {
+        signIn();
+        int lost = paidOrder();
+        int held = paidOrder();
+        // Claimed by a worker that never finished: one long ago, one still within the lease
+        claim(lost, LocalDateTime.now().minusHours(1));
+        claim(held, LocalDateTime.now().minusMinutes(1));
+        double before = meterRegistry.counter("orders.fulfillment.requeued").count();
+
+        worker.dispatch();
+        assertTrue(worker.awaitIdle(Duration.ofSeconds(10)));
+
+        assertEquals(OrderStatus.COMPLETED, orderService.getById(lost).orderStatus());
+        assertEquals(OrderStatus.PROCESSING, orderService.getById(held).orderStatus());
+        assertEquals(1, meterRegistry.counter("orders.fulfillment.requeued").count() - before);
+    }
+
+    @Test
+    void failedBatchesAreHandedBack() throws Exception {
+        List<Object> released = new CopyOnWriteArrayList<>();
+        var stub = (OrderService) Proxy.newProxyInstance(OrderService.class.getClassLoader(),
+                new Class<?>[] {OrderService.class}, (proxy, method, args) -> switch (method.getName()) {
+                    case "requeueClaimedBefore" -> 0;
+                    case "claimPaid" -> new OrderService.Claim(List.of(1, 2), LocalDateTime.now());
+                    case "completeProcessing" -> throw new IllegalStateException("fulfillment down");
+                    case "releaseClaims" -> {
+                        released.addAll(((OrderService.Claim) args[0]).ids());
+                        yield ((OrderService.Claim) args[0]).ids().size();
+                    }
+                    default -> throw new UnsupportedOperationException(method.getName());
+                });
+        var failing = new FulfillmentWorker(stub, new SimpleMeterRegistry(), 1, 1, 5, Duration.ofMinutes(10));
+        try {
+            assertEquals(2, failing.dispatch());
+            assertTrue(failing.awaitIdle(Duration.ofSeconds(10)));
+            assertEquals(List.of(1, 2), released);
+        } finally {
+            failing.stop();
+        }
+    }
+
+    @Test
+    void aClaimTakenOverAfterItsLeaseCompletesNothing() {
+        signIn();
+        int id = paidOrder();
+        var stale = new OrderService.Claim(List.of(id), LocalDateTime.now().minusHours(1).truncatedTo(ChronoUnit.MILLIS));
+        claim(id, stale.claimedAt());
+        // The lease ran out and another worker claimed the order again while the first was still busy
+        var current = new OrderService.Claim(List.of(id), LocalDateTime.now().truncatedTo(ChronoUnit.MILLIS));
+        claim(id, current.claimedAt());
+
+        assertEquals(0, orderService.releaseClaims(stale));
+        assertEquals(0, orderService.completeProcessing(stale));
+        assertEquals(OrderStatus.PROCESSING, orderService.getById(id).orderStatus());
+        assertEquals(1, orderService.completeProcessing(current));
+        assertEquals(OrderStatus.COMPLETED, orderService.getById(id).orderStatus());
+    }
+
+    private int paidOrder() {
+        int id = orderService.add(CART).id();
+        orderService.pay(id);
+        return id;
+    }
+
+    private void claim(int id, LocalDateTime claimedAt) {
+        jdbcTemplate.update("update orders set order_status = ?, claimed_at = ? where id = ?",
+                OrderStatus.PROCESSING.ordinal(), claimedAt, id);
+    }
+
+    private static void signIn() {
+        // Seeded by App.run
+        SecurityContextHolder.getContext().setAuthentication(new UsernamePasswordAuthenticationToken(
+                "user@example.com", null, List.of(new SimpleGrantedAuthority("ROLE_User"))));
+    }
+}
@@ -0,0 +1,112 @@
+package com.orchid.orchidbe.services;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+
+import com.orchid.orchidbe.configs.QueryCounter;
+import com.orchid.orchidbe.dto.OrderDTO;
+import com.orchid.orchidbe.pojos.Orchid;
+import com.orchid.orchidbe.repositories.CategoryRepository;
+import com.orchid.orchidbe.repositories.OrchidRepository;
+import com.orchid.orchidbe.repositories.OrderRepository;
+import java.util.ArrayList;
+import java.util.HashSet;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import org.hibernate.SessionFactory;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.security.authentication.UsernamePasswordAuthenticationToken;
+import org.springframework.security.core.authority.SimpleGrantedAuthority;
+import org.springframework.security.core.context.SecurityContextHolder;
+import org.springframework.test.context.ActiveProfiles;
+
+/**
+ * Placing an order must cost the same number of JDBC round trips whether the
+ * cart has one line or twenty.
+ */
+@SpringBootTest
+@ActiveProfiles("h2")
+class OrderPlacementRoundTripTest {
+
+    @Autowired
+    private OrderService orderService;
+
+    @Autowired
+    private OrchidRepository orchidRepository;
+
+    @Autowired
+    private CategoryRepository categoryRepository;
+
+    @Autowired
+    private OrderRepository orderRepository;
+
+    @Autowired
+    private SessionFactory sessionFactory;
+
+    private final List<Integer> orchidIds = new ArrayList<>();
+
+    @BeforeEach
+    void setUp() {
+        var category = categoryRepository.findAll().get(0);
+        for (int i = 0; i < 20; i++) {
+            var orchid = new Orchid(0, true, "Bench orchid", "Bench " + i + " " + System.nanoTime(), "url", 5.0 + i, true, category);
+            orchidIds.add(orchidRepository.save(orchid).getId());
+        }
+        // Seeded by App.run
+        SecurityContextHolder.getContext().setAuthentication(new UsernamePasswordAuthenticationToken(
+                "user@example.com", null, List.of(new SimpleGrantedAuthority("ROLE_User"))));
+    }
+
+    @AfterEach
+    void tearDown() {
+        SecurityContextHolder.clearContext();
+    }
+
+    @Test
+    void roundTripsPerOrderDoNotGrowWithLineCount() {
+        Map<Integer, Integer> roundTrips = new LinkedHashMap<>();
+        for (int lines : new int[] {1, 5, 20}) {
+            var request = new OrderDTO.OrderReq(orchidIds.subList(0, lines).stream()
+                    .map(id -> new OrderDTO.OrderDetailReq(id, 2))
+                    .toList());
+
+            // Every order starts from a cold second-level cache, like the first one
+            sessionFactory.getCache().evictAllRegions();
+            QueryCounter.begin();
+            var order = orderService.add(request);
+            roundTrips.put(lines, QueryCounter.end());
+
+            assertEquals(lines, order.orderDetails().size());
+        }
+        assertEquals(1, new HashSet<>(roundTrips.values()).size(),
+                () -> "Round trips per order by line count: " + roundTrips);
+    }
+
+    @Test
+    void unknownProductLeavesNoOrderBehind() {
+        long before = orderRepository.count();
+        var request = new OrderDTO.OrderReq(List.of(
+                new OrderDTO.OrderDetailReq(orchidIds.get(0), 1),
+                new OrderDTO.OrderDetailReq(Integer.MAX_VALUE, 1)));
+
+        assertThrows(IllegalArgumentException.class, () -> orderService.add(request));
+        assertEquals(before, orderRepository.count());
+    }
+
+    @Test
+    void unpricedProductLeavesNoOrderBehind() {
+        var category = categoryRepository.findAll().get(0);
+        int unpriced = orchidRepository.save(
+                new Orchid(0, true, "Bench orchid", "Unpriced " + System.nanoTime(), "url", null, true, category)).getId();
+        long before = orderRepository.count();
+        var request = new OrderDTO.OrderReq(List.of(new OrderDTO.OrderDetailReq(unpriced, 1)));
+
+        assertThrows(IllegalArgumentException.class, () -> orderService.add(request));
+        assertEquals(before, orderRepository.count());
+    }
+}
@@ -0,0 +1,152 @@
+package com.orchid.orchidbe.services;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+
+import com.orchid.orchidbe.dto.OrderDTO;
+import com.orchid.orchidbe.pojos.Order.OrderStatus;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.Callable;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.security.authentication.UsernamePasswordAuthenticationToken;
+import org.springframework.security.core.authority.SimpleGrantedAuthority;
+import org.springframework.security.core.context.SecurityContextHolder;
+import org.springframework.test.context.ActiveProfiles;
+
+/**
+ * Pay, cancel and update race on the status of one order; the conditional
+ * updates let exactly one transition win and report the others as failed.
+ * The fulfillment worker is off, so paid orders stay PAID.
+ */
+@SpringBootTest(properties = {
+        "spring.datasource.url=jdbc:h2:mem:order-transitions;DB_CLOSE_DELAY=-1",
+        "orders.fulfillment.enabled=false"
+})
+@ActiveProfiles("h2")
+class OrderTransitionTest {
+
+    private static final OrderDTO.OrderReq CART = new OrderDTO.OrderReq(List.of(new OrderDTO.OrderDetailReq(1, 2)));
+
+    @Autowired
+    private OrderService orderService;
+
+    @BeforeEach
+    void setUp() {
+        signIn("user@example.com");
+    }
+
+    @AfterEach
+    void tearDown() {
+        SecurityContextHolder.clearContext();
+    }
+
+    @Test
+    void racingPayAndCancelHaveOneWinner() throws Exception {
+        int rounds = 20;
+        int clients = 6;
+        ExecutorService pool = Executors.newFixedThreadPool(clients);
+        try {
+            for (int round = 0; round < rounds; round++) {
+                int orderId = orderService.add(CART).id();
+                var start = new CountDownLatch(1);
+                List<Future<OrderStatus>> attempts = new ArrayList<>();
+                for (int i = 0; i < clients; i++) {
+                    OrderStatus target = i % 2 == 0 ? OrderStatus.PAID : OrderStatus.CANCELLED;
+                    attempts.add(pool.submit((Callable<OrderStatus>) () -> {
+                        signIn("user@example.com");
+                        start.await();
+                        try {
+                            if (target == OrderStatus.PAID) {
+                                orderService.pay(orderId);
+                            } else {
+                                orderService.delete(orderId);
+                            }
+                            return target;
+                        } finally {
+                            SecurityContextHolder.clearContext();
+                        }
+                    }));
+                }
+                start.countDown();
+
+                int paid = 0;
+                int cancelled = 0;
+                for (var attempt : attempts) {
+                    try {
+                        if (attempt.get() == OrderStatus.PAID) {
+                            paid++;
+                        } else {
+                            cancelled++;
+                        }
+                    } catch (ExecutionException e) {
+                        assertEquals(IllegalArgumentException.class, e.getCause().getClass());
+                    }
+                }
+                var status = orderService.getById(orderId).orderStatus();
+                // A paid order takes no cancel; repeated cancels of a cancelled one are no-ops
+                if (status == OrderStatus.PAID) {
+                    assertEquals(1, paid);
+                    assertEquals(0, cancelled);
+                } else {
+                    assertEquals(OrderStatus.CANCELLED, status);
+                    assertEquals(0, paid);
+                }
+            }
+        } finally {
+            pool.shutdownNow();
+        }
+    }
+
+    @Test
+    void finishedOrdersStayFinished() {
+        int paid = orderService.add(CART).id();
+        orderService.pay(paid);
+        int cancelled = orderService.add(CART).id();
+        orderService.delete(cancelled);
+        var update = new OrderDTO.OrderUpReq(List.of(new OrderDTO.OrderDetailReq(2, 1)));
+
+        assertThrows(IllegalArgumentException.class, () -> orderService.delete(paid));
+        assertThrows(IllegalArgumentException.class, () -> orderService.pay(paid));
+        assertThrows(IllegalArgumentException.class, () -> orderService.pay(cancelled));
+        assertThrows(IllegalArgumentException.class, () -> orderService.update(update, cancelled));
+        assertEquals(OrderStatus.PAID, orderService.getById(paid).orderStatus());
+        assertEquals(OrderStatus.CANCELLED, orderService.getById(cancelled).orderStatus());
+    }
+
+    @Test
+    void onlyTheOwnerPays() {
+        int orderId = orderService.add(CART).id();
+        signIn("staff@example.com");
+
+        assertThrows(IllegalArgumentException.class, () -> orderService.pay(orderId));
+        assertEquals(OrderStatus.PENDING, orderService.getById(orderId).orderStatus());
+    }
+
+    @Test
+    void updateReplacesTheLinesOfAPendingOrder() {
+        int orderId = orderService.add(CART).id();
+
+        var updated = orderService.update(new OrderDTO.OrderUpReq(List.of(new OrderDTO.OrderDetailReq(2, 3))), orderId);
+
+        assertEquals(OrderStatus.PENDING, updated.orderStatus());
+        assertEquals(updated, orderService.getById(orderId));
+        assertThrows(IllegalArgumentException.class,
+                () -> orderService.update(new OrderDTO.OrderUpReq(List.of(new OrderDTO.OrderDetailReq(2, 3))), -1));
+    }
+
+    private static void signIn(String email) {
+        // Seeded by App.run
+        SecurityContextHolder.getContext().setAuthentication(new UsernamePasswordAuthenticationToken(
+                email, null, List.of(new SimpleGrantedAuthority("ROLE_User"))));
+    }
+}
@@ -0,0 +1,125 @@
+package com.orchid.orchidbe.services;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+import com.orchid.orchidbe.BulkDataGenerator;
+import com.orchid.orchidbe.dto.OrchidDTO;
+import com.orchid.orchidbe.dto.OrderDTO;
+import com.orchid.orchidbe.pojos.Order.OrderStatus;
+import io.micrometer.core.instrument.MeterRegistry;
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.List;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.security.authentication.UsernamePasswordAuthenticationToken;
+import org.springframework.security.core.authority.SimpleGrantedAuthority;
+import org.springframework.security.core.context.SecurityContextHolder;
+import org.springframework.test.context.ActiveProfiles;
+
+/**
+ * Unpaid orders past the TTL are cancelled in bounded batches and give back
+ * the stock they took; paid and recent orders are left alone.
+ */
+@SpringBootTest(properties = {
+        "spring.datasource.url=jdbc:h2:mem:pending-sweeper;DB_CLOSE_DELAY=-1",
+        "orders.pending.sweep.interval=1h",
+        "orders.pending.sweep.batch-size=3",
+        "orders.pending.sweep.max-batches=2",
+        "orders.fulfillment.enabled=false",
+        "seed.bulk.categories=2",
+        "seed.bulk.orchids=20",
+        "seed.bulk.accounts=5",
+        "seed.bulk.orders=100"
+})
+@ActiveProfiles("h2")
+class PendingOrderSweeperTest {
+
+    @Autowired
+    private PendingOrderSweeper sweeper;
+
+    @Autowired
+    private OrderService orderService;
+
+    @Autowired
+    private OrchidService orchidService;
+
+    @Autowired
+    private JdbcTemplate jdbcTemplate;
+
+    @Autowired
+    private MeterRegistry meterRegistry;
+
+    @Autowired
+    private BulkDataGenerator bulkDataGenerator;
+
+    @BeforeEach
+    void setUp() {
+        // Seeded by App.run
+        SecurityContextHolder.getContext().setAuthentication(new UsernamePasswordAuthenticationToken(
+                "user@example.com", null, List.of(new SimpleGrantedAuthority("ROLE_User"))));
+    }
+
+    @AfterEach
+    void tearDown() {
+        SecurityContextHolder.clearContext();
+    }
+
+    @Test
+    void cancelsStaleOrdersInBoundedBatches() {
+        int orchid = orchidService.add(new OrchidDTO.OrchidReq(true, "Sweeper test", "Sweeper " + System.nanoTime(),
+                "url", 10.0, true, 1, 100)).id();
+        var cart = new OrderDTO.OrderReq(List.of(new OrderDTO.OrderDetailReq(orchid, 1)));
+        List<Integer> stale = new ArrayList<>();
+        for (int i = 0; i < 8; i++) {
+            stale.add(orderService.add(cart).id());
+        }
+        int fresh = orderService.add(cart).id();
+        int paid = stale.remove(0);
+        orderService.pay(paid);
+        var old = new ArrayList<>(stale);
+        old.add(paid);
+        for (int id : old) {
+            jdbcTemplate.update("update orders set order_date = ? where id = ?",
+                    LocalDateTime.now().minusHours(2), id);
+        }
+        double expiredBefore = meterRegistry.counter("orders.pending.expired").count();
+
+        // Two batches of three per run, the seventh order waits for the next run
+        assertEquals(6, sweeper.sweep());
+        assertEquals(1, sweeper.sweep());
+        assertEquals(0, sweeper.sweep());
+
+        for (int id : stale) {
+            assertEquals(OrderStatus.CANCELLED, orderService.getById(id).orderStatus());
+        }
+        assertEquals(OrderStatus.PAID, orderService.getById(paid).orderStatus());
+        assertEquals(OrderStatus.PENDING, orderService.getById(fresh).orderStatus());
+        assertEquals(100 - 2, orchidService.getStock(orchid).quantity());
+        assertEquals(7, meterRegistry.counter("orders.pending.expired").count() - expiredBefore);
+    }
+
+    @Test
+    void generatedOrdersAreCancelledWithoutTouchingStock() {
+        bulkDataGenerator.generate();
+        // The generator spreads orders over two years and writes them without taking stock
+        int stale = jdbcTemplate.queryForObject("select count(*) from orders where order_status = 0 and order_date < ?",
+                Integer.class, LocalDateTime.now().minusHours(1));
+        String changedStock = "select count(*) from orchid_stock s join orchids o on o.orchid_id = s.orchid_id"
+                + " where o.orchid_name like 'Bulk orchid %' and (s.quantity is null or s.quantity <> 1000)";
+
+        int swept = 0;
+        for (int run = sweeper.sweep(); run > 0; run = sweeper.sweep()) {
+            swept += run;
+        }
+
+        assertTrue(stale > 0, "the generator wrote no stale pending orders");
+        assertEquals(stale, swept);
+        assertEquals(0, jdbcTemplate.queryForObject(changedStock, Integer.class));
+    }
+}
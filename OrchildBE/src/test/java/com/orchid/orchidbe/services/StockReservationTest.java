@@ -0,0 +1,168 @@
+package com.orchid.orchidbe.services;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+
+import com.orchid.orchidbe.dto.OrchidDTO;
+import com.orchid.orchidbe.dto.OrderDTO;
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.Callable;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.security.authentication.UsernamePasswordAuthenticationToken;
+import org.springframework.security.core.authority.SimpleGrantedAuthority;
+import org.springframework.security.core.context.SecurityContextHolder;
+import org.springframework.test.context.ActiveProfiles;
+
+/**
+ * A flash sale: many more buyers than stock, all at once. Every unit is sold
+ * at most once, and cancelled or changed orders give back the units they took,
+ * and no more.
+ */
+@SpringBootTest(properties = "spring.datasource.url=jdbc:h2:mem:stock-reservation;DB_CLOSE_DELAY=-1")
+@ActiveProfiles("h2")
+class StockReservationTest {
+
+    @Autowired
+    private OrderService orderService;
+
+    @Autowired
+    private OrchidService orchidService;
+
+    @Autowired
+    private JdbcTemplate jdbcTemplate;
+
+    @BeforeEach
+    void setUp() {
+        signIn();
+    }
+
+    @AfterEach
+    void tearDown() {
+        SecurityContextHolder.clearContext();
+    }
+
+    @Test
+    void flashSaleNeverOversells() throws Exception {
+        int stock = 40;
+        int hot = newOrchid(stock);
+        int other = newOrchid(10_000);
+        int buyers = 300;
+        var start = new CountDownLatch(1);
+        ExecutorService pool = Executors.newFixedThreadPool(32);
+        try {
+            List<Future<Integer>> orders = new ArrayList<>();
+            for (int i = 0; i < buyers; i++) {
+                // Carts list the two orchids in both orders, the rows must still lock in one order
+                var lines = i % 2 == 0
+                        ? List.of(new OrderDTO.OrderDetailReq(hot, 1), new OrderDTO.OrderDetailReq(other, 1))
+                        : List.of(new OrderDTO.OrderDetailReq(other, 1), new OrderDTO.OrderDetailReq(hot, 1));
+                orders.add(pool.submit((Callable<Integer>) () -> {
+                    signIn();
+                    start.await();
+                    try {
+                        return orderService.add(new OrderDTO.OrderReq(lines)).id();
+                    } finally {
+                        SecurityContextHolder.clearContext();
+                    }
+                }));
+            }
+            start.countDown();
+
+            List<Integer> placed = new ArrayList<>();
+            for (var order : orders) {
+                try {
+                    placed.add(order.get());
+                } catch (ExecutionException e) {
+                    assertEquals(IllegalArgumentException.class, e.getCause().getClass(), e.getCause().toString());
+                }
+            }
+            assertEquals(stock, placed.size());
+            assertEquals(0, orchidService.getStock(hot).quantity());
+            assertEquals(10_000 - stock, orchidService.getStock(other).quantity());
+
+            // Cancelling twice gives the units back once
+            orderService.delete(placed.get(0));
+            orderService.delete(placed.get(0));
+            assertEquals(1, orchidService.getStock(hot).quantity());
+        } finally {
+            pool.shutdownNow();
+        }
+    }
+
+    @Test
+    void changedOrderSwapsItsReservation() {
+        int first = newOrchid(5);
+        int second = newOrchid(5);
+        int orderId = orderService.add(new OrderDTO.OrderReq(List.of(new OrderDTO.OrderDetailReq(first, 3)))).id();
+
+        orderService.update(new OrderDTO.OrderUpReq(List.of(new OrderDTO.OrderDetailReq(second, 4))), orderId);
+
+        assertEquals(5, orchidService.getStock(first).quantity());
+        assertEquals(1, orchidService.getStock(second).quantity());
+        // Too much of it: the whole change rolls back, the old lines keep their units
+        assertThrows(IllegalArgumentException.class, () -> orderService.update(
+                new OrderDTO.OrderUpReq(List.of(new OrderDTO.OrderDetailReq(first, 6))), orderId));
+        assertEquals(5, orchidService.getStock(first).quantity());
+        assertEquals(1, orchidService.getStock(second).quantity());
+        assertEquals(second, orderService.getById(orderId).orderDetails().get(0).orchidId());
+    }
+
+    @Test
+    void unlimitedOrchidsStayUnlimited() {
+        int unlimited = newOrchid(null);
+
+        orderService.add(new OrderDTO.OrderReq(List.of(new OrderDTO.OrderDetailReq(unlimited, 1_000_000))));
+
+        assertEquals(null, orchidService.getStock(unlimited).quantity());
+    }
+
+    @Test
+    void ordersWrittenWithoutReservationGiveNothingBack() {
+        int orchid = newOrchid(10);
+        // Written like the bulk generator and the seed: straight to the tables, no stock taken
+        int generated = unreservedOrder(orchid, 4);
+
+        orderService.update(new OrderDTO.OrderUpReq(List.of(new OrderDTO.OrderDetailReq(orchid, 3))), generated);
+        assertEquals(7, orchidService.getStock(orchid).quantity());
+        // Once updated it holds a reservation like any other order
+        orderService.delete(generated);
+        assertEquals(10, orchidService.getStock(orchid).quantity());
+
+        orderService.delete(unreservedOrder(orchid, 4));
+        assertEquals(10, orchidService.getStock(orchid).quantity());
+    }
+
+    private int unreservedOrder(int orchid, int quantity) {
+        int accountId = jdbcTemplate.queryForObject("select account_id from accounts where email = ?", Integer.class,
+                "user@example.com");
+        jdbcTemplate.update("insert into orders (total_amount, order_date, order_status, account_id) values (?, ?, 0, ?)",
+                10.0 * quantity, LocalDateTime.now(), accountId);
+        int orderId = jdbcTemplate.queryForObject("select max(id) from orders", Integer.class);
+        jdbcTemplate.update("insert into order_details (price, quantity, orchid_id, order_id) values (10.0, ?, ?, ?)",
+                quantity, orchid, orderId);
+        return orderId;
+    }
+
+    private int newOrchid(Integer stock) {
+        return orchidService.add(new OrchidDTO.OrchidReq(true, "Stock test", "Stock " + System.nanoTime(),
+                "url", 10.0, true, 1, stock)).id();
+    }
+
+    private static void signIn() {
+        // Seeded by App.run; creating orchids does not check roles below the controller
+        SecurityContextHolder.getContext().setAuthentication(new UsernamePasswordAuthenticationToken(
+                "user@example.com", null, List.of(new SimpleGrantedAuthority("ROLE_User"))));
+    }
+}